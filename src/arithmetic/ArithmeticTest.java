@@ -1,6 +1,7 @@
 package arithmetic;
 
 import arithmetic.FiniteGroupOfOrderTwo;
+import core.DiscreteLog;
 /**
  * This class is given to you as an outline for testing your code. You can modify this as you want, but please keep in
  * mind that the lines already provided here as expected to work exactly as they are.
@@ -21,5 +22,21 @@ public class ArithmeticTest {
                 System.out.printf("inverseOf(%s) = %s%n", e.toString(), g.inverseOf(e).toString());
             }
         }
+
+        // Pollard's rho on trivial logarithms, and on logarithms base 3 in groups whose order is a power of two
+        ZModTimes z = new ZModTimes(101);
+        System.out.printf("pollardRho(100, 100) mod 101 = %d%n", DiscreteLog.pollardRho(z, 100L, 100L, 2));
+        System.out.printf("pollardRho(100, 1) mod 101 = %d%n", DiscreteLog.pollardRho(z, 100L, 1L, 2));
+        for (long p : new long[]{17, 257, 65537}) {
+            ZModTimes units    = new ZModTimes(p);
+            int       failures = 0;
+            for (int k = 0; k < p - 1; k += (p - 1) / 16) {
+                long h      = units.exponent(3L, k);
+                long result = DiscreteLog.pollardRho(units, 3L, h, p - 1);
+                if (result < 0 || units.exponent(3L, (int) result) != h)
+                    failures++;
+            }
+            System.out.printf("pollardRho failures mod %d = %d%n", p, failures);
+        }
     }
 }
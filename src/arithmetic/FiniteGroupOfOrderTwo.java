@@ -1,6 +1,11 @@
 package arithmetic;
 
-import core.Group;
+import core.FiniteGroup;
+import core.PackableGroup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 enum PlusOrMinusOne {
     PLUS(1),
@@ -20,7 +25,10 @@ enum PlusOrMinusOne {
     }
 }
 
-public class FiniteGroupOfOrderTwo implements Group<PlusOrMinusOne> {
+public class FiniteGroupOfOrderTwo implements PackableGroup<PlusOrMinusOne>, FiniteGroup<PlusOrMinusOne> {
+
+    private static final List<PlusOrMinusOne> ELEMENTS =
+            Collections.unmodifiableList(Arrays.asList(PlusOrMinusOne.PLUS, PlusOrMinusOne.MINUS_ONE));
 
     @Override
     public PlusOrMinusOne binaryOperation(PlusOrMinusOne one, PlusOrMinusOne other) {
@@ -36,5 +44,48 @@ public class FiniteGroupOfOrderTwo implements Group<PlusOrMinusOne> {
     public PlusOrMinusOne inverseOf(PlusOrMinusOne one) {
         return one;
     }
+
+    @Override
+    public List<PlusOrMinusOne> elements() {
+        return ELEMENTS;
+    }
+
+    @Override
+    public long order() {
+        return 2;
+    }
+
+    /* PLUS is packed as 0 and MINUS_ONE as 1, so that the binary operation is exclusive or */
+    @Override
+    public int bitWidth() {
+        return 1;
+    }
+
+    @Override
+    public long pack(PlusOrMinusOne one) {
+        return one == PlusOrMinusOne.PLUS ? 0 : 1;
+    }
+
+    @Override
+    public PlusOrMinusOne unpack(long bits) {
+        return bits == 0 ? PlusOrMinusOne.PLUS : PlusOrMinusOne.MINUS_ONE;
+    }
+
+    @Override
+    public long packedOperation(long one, long other) {
+        return one ^ other;
+    }
+
+    @Override
+    public long packedInverse(long one) {
+        return one;
+    }
+
+    @Override
+    public long packedExponent(long one, long k) {
+        if (k < 0)
+            throw new IllegalArgumentException("The exponent must be a non-negative integer value.");
+        return one & k;
+    }
 }
 
@@ -0,0 +1,258 @@
+package arithmetic;
+
+/**
+ * Arithmetic modulo a fixed positive <code>long</code>, without any division after construction. Products are reduced
+ * <ul>
+ *     <li>by <b>Barrett reduction</b> when the modulus is at most <code>2<sup>32</sup></code>, so that the product of
+ *     two residues fits in 64 unsigned bits;</li>
+ *     <li>by <b>Montgomery reduction</b> with <code>R = 2<sup>64</sup></code> when the modulus is larger and odd;
+ *     and</li>
+ *     <li>when the modulus is larger and even, by writing it as <code>odd * 2<sup>s</sup></code>, reducing modulo the
+ *     odd part by Montgomery reduction and modulo <code>2<sup>s</sup></code> with a mask, and combining the two
+ *     residues by the Chinese remainder theorem.</li>
+ * </ul>
+ * Repeated multiplications (e.g., in {@link #power(long, long)}) are done on the <em>form</em> of the residues, which
+ * is the Montgomery form <code>x * R mod n</code> for odd moduli above <code>2<sup>32</sup></code>, and the residue
+ * itself otherwise, so that converting to and from the Montgomery form happens only once.
+ * <p>
+ * Residues are the <code>long</code> values from <code>0</code> to <code>n - 1</code>, and the methods do not check
+ * their arguments. Instances are immutable and thread-safe.
+ */
+abstract class Modulus {
+
+    final long n;
+
+    private Modulus(long n) {
+        this.n = n;
+    }
+
+    /**
+     * @param n the modulus
+     * @return the arithmetic modulo <code>n</code>, with the fastest reduction that applies to it
+     */
+    static Modulus of(long n) {
+        if (n < 1)
+            throw new IllegalArgumentException("The modulus must be a positive integer.");
+        if (n <= 1L << 32)
+            return new Barrett(n);
+        if ((n & 1) == 1)
+            return new Montgomery(n);
+        return new Even(n);
+    }
+
+    /**
+     * @return <code>x * y mod n</code>, for residues <code>x</code> and <code>y</code>, or for a residue
+     * <code>x</code> and a non-negative <code>int</code> <code>y</code>.
+     */
+    abstract long multiply(long x, long y);
+
+    /**
+     * @return the form of the residue <code>x</code>, on which {@link #multiplyForms(long, long)} works.
+     */
+    long toForm(long x) {
+        return x;
+    }
+
+    /**
+     * @return the residue whose form is <code>f</code>.
+     */
+    long fromForm(long f) {
+        return f;
+    }
+
+    /**
+     * @return the form of the product of the residues whose forms are <code>f</code> and <code>g</code>.
+     */
+    long multiplyForms(long f, long g) {
+        return multiply(f, g);
+    }
+
+    /**
+     * @return the residue of <code>1</code>, which is <code>0</code> modulo <code>1</code>.
+     */
+    long one() {
+        return n == 1 ? 0 : 1;
+    }
+
+    long add(long x, long y) {
+        long sum = x + y;
+        // x + y < 2n, which may overflow into the sign bit, but then sum - n wraps back around to the residue
+        return sum >= n || sum < 0 ? sum - n : sum;
+    }
+
+    long negate(long x) {
+        return x == 0 ? 0 : n - x;
+    }
+
+    /**
+     * @return <code>x<sup>k</sup> mod n</code>, by repeated squaring of the form of <code>x</code>.
+     */
+    long power(long x, long k) {
+        long base   = toForm(x);
+        long result = toForm(one());
+        while (k > 0) {
+            if ((k & 1) == 1)
+                result = multiplyForms(result, base);
+            k >>>= 1;
+            if (k > 0)
+                base = multiplyForms(base, base);
+        }
+        return fromForm(result);
+    }
+
+    /**
+     * Computes the multiplicative inverse of a residue by the extended Euclidean algorithm.
+     *
+     * @return the residue <code>y</code> such that <code>x * y mod n</code> is <code>1 mod n</code>.
+     * @throws IllegalArgumentException if <code>x</code> and <code>n</code> are not coprime.
+     */
+    long inverse(long x) {
+        // invariant: r0 = t0 * x mod n, and r1 = t1 * x mod n
+        long r0 = n, r1 = x;
+        long t0 = 0, t1 = 1;
+        while (r1 != 0) {
+            long q = r0 / r1;
+            long r = r0 - q * r1;
+            long t = t0 - q * t1;
+            r0 = r1;
+            r1 = r;
+            t0 = t1;
+            t1 = t;
+        }
+        if (r0 != 1)
+            throw new IllegalArgumentException(x + " is not invertible modulo " + n + ".");
+        return t0 < 0 ? t0 + n : t0;
+    }
+
+    static long gcd(long a, long b) {
+        while (b != 0) {
+            long r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+    /**
+     * The high 64 bits of the 128-bit product of two signed <code>long</code>s, as computed by
+     * <code>Math.multiplyHigh</code>, which is not available before Java 9.
+     */
+    static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32;
+        long x2 = x & 0xFFFFFFFFL;
+        long y1 = y >> 32;
+        long y2 = y & 0xFFFFFFFFL;
+        long z2 = x2 * y2;
+        long t  = x1 * y2 + (z2 >>> 32);
+        long z1 = (t & 0xFFFFFFFFL) + x2 * y1;
+        long z0 = t >> 32;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+    /**
+     * @return the high 64 bits of the 128-bit product of two unsigned <code>long</code>s.
+     */
+    static long unsignedMultiplyHigh(long x, long y) {
+        return multiplyHigh(x, y) + (y & (x >> 63)) + (x & (y >> 63));
+    }
+
+    /* moduli of at most 32 bits, so that the product of two residues fits in a long as an unsigned value */
+    private static final class Barrett extends Modulus {
+
+        private final long reciprocal; // floor((2^64 - 1) / n)
+
+        Barrett(long n) {
+            super(n);
+            this.reciprocal = Long.divideUnsigned(-1L, n);
+        }
+
+        @Override
+        long multiply(long x, long y) {
+            return reduce(x * y);
+        }
+
+        /* the estimated quotient is at most two less than the exact one, so at most two corrections are needed */
+        private long reduce(long x) {
+            long r = x - unsignedMultiplyHigh(x, reciprocal) * n;
+            while (Long.compareUnsigned(r, n) >= 0)
+                r -= n;
+            return r;
+        }
+    }
+
+    /* odd moduli, with R = 2^64 */
+    private static final class Montgomery extends Modulus {
+
+        private final long inverse; // n^-1 mod 2^64
+        private final long r2;      // R^2 mod n
+
+        Montgomery(long n) {
+            super(n);
+            // n is its own inverse modulo 8, and every Newton step doubles the number of correct low bits
+            long inverse = n;
+            for (int i = 0; i < 5; i++)
+                inverse *= 2 - n * inverse;
+            this.inverse = inverse;
+            long r = Long.remainderUnsigned(-1L, n) + 1;
+            if (r == n)
+                r = 0;
+            // R^2 = R * 2^64, by doubling 64 times
+            for (int i = 0; i < 64; i++)
+                r = add(r, r);
+            this.r2 = r;
+        }
+
+        /* (hi * 2^64 + lo) / R mod n, for hi < n: subtracting m * n, where m * n has the same low 64 bits as the
+         * product, leaves a multiple of 2^64 strictly between -n * 2^64 and n * 2^64 */
+        private long reduce(long hi, long lo) {
+            long t = hi - unsignedMultiplyHigh(lo * inverse, n);
+            return t < 0 ? t + n : t;
+        }
+
+        @Override
+        long multiply(long x, long y) {
+            // x * R^2 / R is the form of x, and its product with y divided by R is the residue of the product
+            return multiplyForms(toForm(x), y);
+        }
+
+        @Override
+        long toForm(long x) {
+            return multiplyForms(x, r2);
+        }
+
+        @Override
+        long fromForm(long f) {
+            return reduce(0, f);
+        }
+
+        @Override
+        long multiplyForms(long f, long g) {
+            return reduce(unsignedMultiplyHigh(f, g), f * g);
+        }
+    }
+
+    /* even moduli n = odd * 2^shift */
+    private static final class Even extends Modulus {
+
+        private final long       odd;
+        private final long       mask;       // 2^shift - 1
+        private final Montgomery oddModulus;
+
+        Even(long n) {
+            super(n);
+            int shift = Long.numberOfTrailingZeros(n);
+            this.odd        = n >> shift;
+            this.mask       = (1L << shift) - 1;
+            this.oddModulus = new Montgomery(odd);
+        }
+
+        @Override
+        long multiply(long x, long y) {
+            long low  = x * y & mask;
+            long high = oddModulus.multiply(x, y);
+            // the residue that is high modulo the odd part and low modulo 2^shift; the inverse of the odd part modulo
+            // 2^64 is also its inverse modulo 2^shift
+            return high + odd * ((low - high) * oddModulus.inverse & mask);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package arithmetic;
+
+import core.PackableGroup;
+
+/**
+ * The integers modulo <code>n</code> under addition, for any positive <code>long</code> modulus <code>n</code>. The
+ * elements are the residues <code>0</code> to <code>n - 1</code>, and every other value is rejected with an
+ * {@link IllegalArgumentException}. Sums are reduced by a conditional subtraction, and {@link #exponent(Long, int)}
+ * (i.e., multiplication by <code>k</code>) uses the division-free reductions of {@link Modulus}.
+ */
+public class ZModPlus implements PackableGroup<Long> {
+
+    private final Modulus modulus;
+
+    /**
+     * @param modulus the modulus <code>n</code>, which must be positive
+     */
+    public ZModPlus(long modulus) {
+        this.modulus = Modulus.of(modulus);
+    }
+
+    public long modulus() {
+        return modulus.n;
+    }
+
+    private long check(long x) {
+        if (x < 0 || x >= modulus.n)
+            throw new IllegalArgumentException(x + " is not a residue modulo " + modulus.n + ".");
+        return x;
+    }
+
+    @Override
+    public Long binaryOperation(Long x, Long y) {
+        return modulus.add(check(x), check(y));
+    }
+
+    @Override
+    public Long identity() {
+        return 0L;
+    }
+
+    @Override
+    public Long inverseOf(Long x) {
+        return modulus.negate(check(x));
+    }
+
+    @Override
+    public Long exponent(Long x, int k) {
+        if (k < 0)
+            throw new IllegalArgumentException("The exponent must be a non-negative integer value.");
+        return modulus.multiply(check(x), k);
+    }
+
+    @Override
+    public long order() {
+        return modulus.n;
+    }
+
+    @Override
+    public long orderOf(Long x) {
+        return modulus.n / Modulus.gcd(check(x), modulus.n);
+    }
+
+    /* the residues are packed as they are, in as many bits as n - 1 needs */
+    @Override
+    public int bitWidth() {
+        return Math.max(1, 64 - Long.numberOfLeadingZeros(modulus.n - 1));
+    }
+
+    @Override
+    public long pack(Long x) {
+        return check(x);
+    }
+
+    @Override
+    public Long unpack(long bits) {
+        return bits;
+    }
+
+    @Override
+    public long packedOperation(long x, long y) {
+        return modulus.add(x, y);
+    }
+
+    @Override
+    public long packedInverse(long x) {
+        return modulus.negate(x);
+    }
+
+    @Override
+    public long packedIdentity() {
+        return 0;
+    }
+}
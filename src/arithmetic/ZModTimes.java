@@ -0,0 +1,116 @@
+package arithmetic;
+
+import core.PackableGroup;
+
+/**
+ * The units of the integers modulo <code>n</code> (i.e., the residues that are coprime to <code>n</code>) under
+ * multiplication, for any positive <code>long</code> modulus <code>n</code>. Products and powers are reduced without
+ * division, by Barrett or Montgomery reduction as described in {@link Modulus}, and inverses are computed by the
+ * extended Euclidean algorithm.
+ * <p>
+ * Values outside <code>0</code> to <code>n - 1</code> are rejected with an {@link IllegalArgumentException}, but for
+ * speed the binary operation does not check that its arguments are coprime to <code>n</code>; {@link #inverseOf(Long)}
+ * does. The packed elements are the forms of the residues used by {@link Modulus} (the Montgomery forms, for large odd
+ * moduli), so that long chains of packed operations, such as {@link #packedExponent(long, long)}, never convert back.
+ */
+public class ZModTimes implements PackableGroup<Long> {
+
+    private final Modulus modulus;
+    private volatile long totient;
+
+    /**
+     * @param modulus the modulus <code>n</code>, which must be positive
+     */
+    public ZModTimes(long modulus) {
+        this.modulus = Modulus.of(modulus);
+    }
+
+    public long modulus() {
+        return modulus.n;
+    }
+
+    private long check(long x) {
+        if (x < 0 || x >= modulus.n)
+            throw new IllegalArgumentException(x + " is not a residue modulo " + modulus.n + ".");
+        return x;
+    }
+
+    @Override
+    public Long binaryOperation(Long x, Long y) {
+        return modulus.multiply(check(x), check(y));
+    }
+
+    @Override
+    public Long identity() {
+        return modulus.one();
+    }
+
+    /**
+     * @throws IllegalArgumentException if <code>x</code> is not coprime to the modulus.
+     */
+    @Override
+    public Long inverseOf(Long x) {
+        return modulus.inverse(check(x));
+    }
+
+    @Override
+    public Long exponent(Long x, int k) {
+        if (k < 0)
+            throw new IllegalArgumentException("The exponent must be a non-negative integer value.");
+        return modulus.power(check(x), k);
+    }
+
+    /**
+     * @return Euler's totient of the modulus, which is computed by trial division (in time proportional to the square
+     * root of the modulus) on the first call.
+     */
+    @Override
+    public long order() {
+        long phi = totient;
+        if (phi == 0)
+            totient = phi = totient(modulus.n);
+        return phi;
+    }
+
+    private static long totient(long n) {
+        long phi = n;
+        for (long p = 2; p <= n / p; p++) {
+            if (n % p == 0) {
+                phi -= phi / p;
+                while (n % p == 0)
+                    n /= p;
+            }
+        }
+        return n > 1 ? phi - phi / n : phi;
+    }
+
+    @Override
+    public int bitWidth() {
+        return Math.max(1, 64 - Long.numberOfLeadingZeros(modulus.n - 1));
+    }
+
+    @Override
+    public long pack(Long x) {
+        return modulus.toForm(check(x));
+    }
+
+    @Override
+    public Long unpack(long bits) {
+        return modulus.fromForm(bits);
+    }
+
+    @Override
+    public long packedOperation(long x, long y) {
+        return modulus.multiplyForms(x, y);
+    }
+
+    @Override
+    public long packedInverse(long x) {
+        return modulus.toForm(modulus.inverse(modulus.fromForm(x)));
+    }
+
+    @Override
+    public long packedIdentity() {
+        return modulus.toForm(modulus.one());
+    }
+}
@@ -1,8 +1,10 @@
 package arithmetic;
 
-import core.Group;
+import core.PackableGroup;
 
-public class ZPlus implements Group<Integer> {
+public class ZPlus implements PackableGroup<Integer> {
+
+    private static final long MASK = 0xFFFFFFFFL;
 
     @Override
     public Integer binaryOperation(Integer x, Integer y) {
@@ -23,4 +25,47 @@ public class ZPlus implements Group<Integer> {
     public Integer exponent(Integer x, int k) {
         return x * k;
     }
+
+    @Override
+    public long orderOf(Integer x) {
+        return x == 0 ? 1 : 0;
+    }
+
+    /* Integer addition wraps around at 32 bits, so the packed elements are the 32 bits of the int */
+    @Override
+    public int bitWidth() {
+        return 32;
+    }
+
+    @Override
+    public long pack(Integer x) {
+        return x & MASK;
+    }
+
+    @Override
+    public Integer unpack(long bits) {
+        return (int) bits;
+    }
+
+    @Override
+    public long packedOperation(long x, long y) {
+        return (x + y) & MASK;
+    }
+
+    @Override
+    public long packedInverse(long x) {
+        return -x & MASK;
+    }
+
+    @Override
+    public long packedIdentity() {
+        return 0;
+    }
+
+    @Override
+    public long packedExponent(long x, long k) {
+        if (k < 0)
+            throw new IllegalArgumentException("The exponent must be a non-negative integer value.");
+        return x * k & MASK;
+    }
 }
@@ -0,0 +1,118 @@
+package core;
+
+import java.util.Objects;
+
+/**
+ * The <b>direct product</b> <code>A &times; B</code> of two groups is the group of all pairs <code>(a, b)</code>, with
+ * the binary operation, identity and inverses all taken componentwise. For example, the product of {@code ZPlus} and
+ * {@code FiniteGroupOfOrderTwo} is the group of integers paired with signs.
+ * <p>
+ * Every operation on this class allocates a new {@link Pair}. When both components are {@link PackableGroup}s, use
+ * {@link PackedDirectProduct} instead, which works on both components at once inside a single <code>long</code>.
+ *
+ * @param <A> the type of the elements of the first group
+ * @param <B> the type of the elements of the second group
+ */
+public class DirectProduct<A, B> implements Group<DirectProduct.Pair<A, B>> {
+
+    private final Group<A> first;
+    private final Group<B> second;
+
+    public DirectProduct(Group<A> first, Group<B> second) {
+        this.first  = first;
+        this.second = second;
+    }
+
+    public Group<A> first() {
+        return first;
+    }
+
+    public Group<B> second() {
+        return second;
+    }
+
+    @Override
+    public Pair<A, B> binaryOperation(Pair<A, B> one, Pair<A, B> other) {
+        return new Pair<>(first.binaryOperation(one.first, other.first),
+                          second.binaryOperation(one.second, other.second));
+    }
+
+    @Override
+    public Pair<A, B> identity() {
+        return new Pair<>(first.identity(), second.identity());
+    }
+
+    @Override
+    public Pair<A, B> inverseOf(Pair<A, B> t) {
+        return new Pair<>(first.inverseOf(t.first), second.inverseOf(t.second));
+    }
+
+    @Override
+    public Pair<A, B> exponent(Pair<A, B> t, int k) {
+        return new Pair<>(first.exponent(t.first, k), second.exponent(t.second, k));
+    }
+
+    @Override
+    public long order() {
+        return productOrder(first.order(), second.order());
+    }
+
+    /* the order of a pair is the least common multiple of the orders of its components */
+    @Override
+    public long orderOf(Pair<A, B> t) {
+        return lcm(first.orderOf(t.first), second.orderOf(t.second));
+    }
+
+    static long productOrder(long m, long n) {
+        if (m == 0 || n == 0)
+            return 0;
+        try {
+            return Math.multiplyExact(m, n);
+        } catch (ArithmeticException tooLarge) {
+            return 0;
+        }
+    }
+
+    static long lcm(long m, long n) {
+        if (m == 0 || n == 0)
+            return 0;
+        return productOrder(m / Groups.gcd(m, n), n);
+    }
+
+    /**
+     * An unmodifiable element of a direct product.
+     *
+     * @param <A> the type of the first component
+     * @param <B> the type of the second component
+     */
+    public static final class Pair<A, B> {
+
+        public final A first;
+        public final B second;
+
+        public Pair(A first, B second) {
+            this.first  = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Pair)) return false;
+
+            Pair<?, ?> pair = (Pair<?, ?>) o;
+
+            return Objects.equals(first, pair.first) && Objects.equals(second, pair.second);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(first) + Objects.hashCode(second);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + first + ", " + second + ")";
+        }
+    }
+}
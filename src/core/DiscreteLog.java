@@ -0,0 +1,294 @@
+package core;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Solvers for the <b>discrete logarithm</b> problem: given elements <code>g</code> and <code>h</code> of a group, find
+ * an exponent <code>k</code> such that <code>exponent(g, k)</code> is equal to <code>h</code>.
+ * <ul>
+ *     <li>{@link #babyStepGiantStep(Group, Object, Object, long)} takes <code>O(sqrt(n))</code> binary operations and
+ *     memory, where <code>n</code> is the order of <code>g</code>. The baby steps are kept in an open-addressing table
+ *     of element hash codes and exponents (two <code>int</code>s per entry), and candidates are verified by
+ *     exponentiation, so the elements themselves are never stored.</li>
+ *     <li>{@link #pollardRho(Group, Object, Object, long)} also takes about <code>O(sqrt(n))</code> binary operations,
+ *     but only constant memory. It is randomized and may fail, in which case it returns <code>-1</code>.</li>
+ *     <li>{@link #modular(long, long, long, long)} is the baby-step giant-step algorithm specialized to the
+ *     multiplicative group of integers modulo <code>m</code>, working on <code>long</code> values directly.</li>
+ * </ul>
+ */
+public final class DiscreteLog {
+
+    /* the largest number of baby steps; the table has at most four slots per step, so at most 2^25 slots, taking 256 MB
+     * in babyStepGiantStep (two ints per slot) and 384 MB in modular (a long and an int per slot) */
+    private static final long MAX_BABY_STEPS = 1L << 23;
+
+    private static final int RHO_ATTEMPTS = 32;
+
+    private static final int EMPTY = -1;
+
+    private DiscreteLog() {
+    }
+
+    /**
+     * Solves the discrete logarithm with the baby-step giant-step algorithm, using the order of <code>g</code> as
+     * reported by {@link Group#orderOf(Object)}.
+     *
+     * @see #babyStepGiantStep(Group, Object, Object, long)
+     */
+    public static <T> long babyStepGiantStep(Group<T> group, T g, T h) {
+        return babyStepGiantStep(group, g, h, group.orderOf(g));
+    }
+
+    /**
+     * Solves the discrete logarithm with the baby-step giant-step algorithm.
+     *
+     * @param group the group.
+     * @param g     the base.
+     * @param h     the element whose logarithm is computed.
+     * @param order the order of <code>g</code>, or any multiple of it.
+     * @return the smallest <code>k</code> with <code>0 &le; k &lt; order</code> such that <code>exponent(g, k)</code>
+     * is equal to <code>h</code>, or <code>-1</code> if there is no such <code>k</code>.
+     */
+    public static <T> long babyStepGiantStep(Group<T> group, T g, T h, long order) {
+        int   m     = babySteps(order);
+        int   mask  = tableCapacity(m) - 1;
+        int[] keys  = new int[mask + 1];
+        int[] steps = new int[mask + 1];
+        Arrays.fill(steps, EMPTY);
+
+        // baby steps: g^j for 0 <= j < m, keyed by hash code
+        T power = group.identity();
+        for (int j = 0; j < m; j++) {
+            int hash = power.hashCode();
+            int slot = mix(hash) & mask;
+            while (steps[slot] != EMPTY)
+                slot = (slot + 1) & mask;
+            keys[slot]  = hash;
+            steps[slot] = j;
+            power = group.binaryOperation(power, g);
+        }
+
+        // giant steps: h * g^(-im) for 0 <= i <= order / m
+        T giant = group.inverseOf(power);
+        T gamma = h;
+        for (long i = 0; i * m < order; i++) {
+            int  hash = gamma.hashCode();
+            long best = -1;
+            for (int slot = mix(hash) & mask; steps[slot] != EMPTY; slot = (slot + 1) & mask) {
+                long k = i * m + steps[slot];
+                if (keys[slot] == hash && k < order && (best < 0 || k < best) && h.equals(Groups.power(group, g, k)))
+                    best = k;
+            }
+            if (best >= 0)
+                return best;
+            gamma = group.binaryOperation(gamma, giant);
+        }
+        return -1;
+    }
+
+    /**
+     * Solves the discrete logarithm with Pollard's rho algorithm, using the order of <code>g</code> as reported by
+     * {@link Group#orderOf(Object)}.
+     *
+     * @see #pollardRho(Group, Object, Object, long)
+     */
+    public static <T> long pollardRho(Group<T> group, T g, T h) {
+        return pollardRho(group, g, h, group.orderOf(g));
+    }
+
+    /**
+     * Solves the discrete logarithm with Pollard's rho algorithm. The group elements are split into three classes by
+     * their hash codes, and a pseudo-random walk <code>x = exponent(g, a) * exponent(h, b)</code> is followed until
+     * Floyd's cycle detection finds a collision, from which <code>k</code> is solved modulo <code>order</code>. Every
+     * attempt starts from random exponents <code>a</code> and <code>b</code> and splits the elements differently, and
+     * the identity is never squared, since a walk stuck there only yields useless collisions.
+     *
+     * @param group the group.
+     * @param g     the base.
+     * @param h     the element whose logarithm is computed.
+     * @param order the order of <code>g</code>, which must be exact.
+     * @return some <code>k</code> with <code>0 &le; k &lt; order</code> such that <code>exponent(g, k)</code> is equal
+     * to <code>h</code>, or <code>-1</code> if none was found. The search is randomized, so <code>-1</code> does not
+     * prove that there is no solution.
+     */
+    public static <T> long pollardRho(Group<T> group, T g, T h, long order) {
+        if (order < 1)
+            throw new IllegalArgumentException("The order of the base must be a positive integer.");
+        T identity = group.identity();
+        if (h.equals(identity))
+            return 0;
+        if (h.equals(g))
+            return 1;
+        Random random = new Random(order);
+        for (int attempt = 0; attempt < RHO_ATTEMPTS; attempt++) {
+            // tortoise x = g^xs[0] h^xs[1] and hare y = g^ys[0] h^ys[1], both starting at a random g^a h^b
+            long[] xs   = {Math.floorMod(random.nextLong(), order), Math.floorMod(random.nextLong(), order)};
+            long[] ys   = xs.clone();
+            long   salt = random.nextLong();
+            T      x    = group.binaryOperation(Groups.power(group, g, xs[0]), Groups.power(group, h, xs[1]));
+            T      y    = x;
+            do {
+                x = rhoStep(group, g, h, identity, salt, x, xs, order);
+                y = rhoStep(group, g, h, identity, salt, y, ys, order);
+                y = rhoStep(group, g, h, identity, salt, y, ys, order);
+            } while (!x.equals(y));
+            // g^a h^b = g^c h^d, so (d - b) k = (a - c) modulo the order
+            long k = solveLinear(Math.floorMod(ys[1] - xs[1], order), Math.floorMod(xs[0] - ys[0], order), order,
+                                 group, g, h);
+            if (k >= 0)
+                return k;
+        }
+        return -1;
+    }
+
+    /* the salt changes which elements fall in which of the three classes */
+    private static <T> T rhoStep(Group<T> group, T g, T h, T identity, long salt, T x, long[] exponents, long order) {
+        int partition = Math.floorMod(mix(x.hashCode() ^ salt), 3);
+        // the identity squares to itself, so it is multiplied by g instead
+        if (partition == 1 && x.equals(identity))
+            partition = 2;
+        switch (partition) {
+            case 0:
+                exponents[1] = addMod(exponents[1], 1, order);
+                return group.binaryOperation(x, h);
+            case 1:
+                exponents[0] = addMod(exponents[0], exponents[0], order);
+                exponents[1] = addMod(exponents[1], exponents[1], order);
+                return group.binaryOperation(x, x);
+            default:
+                exponents[0] = addMod(exponents[0], 1, order);
+                return group.binaryOperation(x, g);
+        }
+    }
+
+    /* finds a solution k of r k = s (mod n) with exponent(g, k) = h, or -1 */
+    private static <T> long solveLinear(long r, long s, long n, Group<T> group, T g, T h) {
+        if (r == 0)
+            return -1;
+        long gcd = Groups.gcd(r, n);
+        if (s % gcd != 0)
+            return -1;
+        long       step    = n / gcd;
+        BigInteger reduced = BigInteger.valueOf(step);
+        long k = BigInteger.valueOf(s / gcd)
+                           .multiply(BigInteger.valueOf(r / gcd).modInverse(reduced))
+                           .mod(reduced)
+                           .longValue();
+        // one of the gcd candidates k, k + n / gcd, k + 2n / gcd, ... is the solution
+        for (long i = 0; i < gcd && i < MAX_BABY_STEPS; i++) {
+            long candidate = k + i * step;
+            if (h.equals(Groups.power(group, g, candidate)))
+                return candidate;
+        }
+        return -1;
+    }
+
+    /**
+     * Solves <code>g<sup>k</sup> = h (mod m)</code> with the baby-step giant-step algorithm on primitive values.
+     *
+     * @param g       the base, which must be coprime to the modulus.
+     * @param h       the element whose logarithm is computed.
+     * @param modulus the modulus <code>m</code>.
+     * @param order   the multiplicative order of <code>g</code> modulo <code>m</code>, or any multiple of it, such as
+     *                <code>m - 1</code> for a prime <code>m</code>.
+     * @return the smallest <code>k</code> with <code>0 &le; k &lt; order</code> such that <code>g<sup>k</sup> = h (mod
+     * m)</code>, or <code>-1</code> if there is no such <code>k</code>.
+     */
+    public static long modular(long g, long h, long modulus, long order) {
+        if (modulus < 2)
+            throw new IllegalArgumentException("The modulus must be at least 2.");
+        g = Math.floorMod(g, modulus);
+        h = Math.floorMod(h, modulus);
+        int    m     = babySteps(order);
+        int    mask  = tableCapacity(m) - 1;
+        long[] keys  = new long[mask + 1];
+        int[]  steps = new int[mask + 1];
+        Arrays.fill(steps, EMPTY);
+
+        long power = 1 % modulus;
+        for (int j = 0; j < m; j++) {
+            int slot = mix(power) & mask;
+            while (steps[slot] != EMPTY && keys[slot] != power)
+                slot = (slot + 1) & mask;
+            // keep the smallest exponent for each value
+            if (steps[slot] == EMPTY) {
+                keys[slot]  = power;
+                steps[slot] = j;
+            }
+            power = mulMod(power, g, modulus);
+        }
+
+        long giant = inverseMod(power, modulus);
+        long gamma = h;
+        for (long i = 0; i * m < order; i++) {
+            for (int slot = mix(gamma) & mask; steps[slot] != EMPTY; slot = (slot + 1) & mask) {
+                if (keys[slot] == gamma) {
+                    long k = i * m + steps[slot];
+                    return k < order ? k : -1;
+                }
+            }
+            gamma = mulMod(gamma, giant, modulus);
+        }
+        return -1;
+    }
+
+    private static int babySteps(long order) {
+        if (order < 1)
+            throw new IllegalArgumentException("The order of the base must be a positive integer.");
+        long m = (long) Math.ceil(Math.sqrt((double) order));
+        if (m > MAX_BABY_STEPS)
+            throw new IllegalArgumentException("The order " + order + " is too large for baby-step giant-step; " +
+                                               "use Pollard's rho instead.");
+        return (int) Math.max(m, 1);
+    }
+
+    /* a power of two with a load factor of at most 1/2 */
+    private static int tableCapacity(int entries) {
+        return Integer.highestOneBit(Math.max(entries, 1)) << 2;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static long addMod(long a, long b, long m) {
+        return a >= m - b ? a - (m - b) : a + b;
+    }
+
+    /* a * b mod m for 0 <= a, b < m */
+    private static long mulMod(long a, long b, long m) {
+        if ((a | b) >>> 31 == 0)
+            return a * b % m;
+        if (m < 1L << 50) {
+            // the quotient estimated in floating point is off by at most one or two
+            long q = (long) ((double) a * b / m);
+            long r = a * b - q * m;
+            while (r < 0)
+                r += m;
+            while (r >= m)
+                r -= m;
+            return r;
+        }
+        return BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).mod(BigInteger.valueOf(m)).longValue();
+    }
+
+    /* the inverse of a modulo m by the extended Euclidean algorithm */
+    private static long inverseMod(long a, long m) {
+        long r0 = m, r1 = a, s0 = 0, s1 = 1;
+        while (r1 != 0) {
+            long q = r0 / r1;
+            long r = r0 - q * r1;
+            r0 = r1;
+            r1 = r;
+            long s = s0 - q * s1;
+            s0 = s1;
+            s1 = s;
+        }
+        if (r0 != 1)
+            throw new IllegalArgumentException(a + " is not invertible modulo " + m);
+        return Math.floorMod(s0, m);
+    }
+}
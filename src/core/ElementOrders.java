@@ -0,0 +1,136 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The <b>order</b> of a group element <code>t</code> is the smallest positive integer <code>n</code> such that
+ * <code>exponent(t, n)</code> is the identity, and the <b>cyclic subgroup</b> generated by <code>t</code> is the set
+ * of its powers <code>identity(), t, exponent(t, 2), ..., exponent(t, n - 1)</code>.
+ * <p>
+ * When the order <code>N</code> of the group is known (see {@link Group#order()}), the order of an element is found
+ * from the prime factors of <code>N</code>: it divides <code>N</code>, so starting from <code>n = N</code> it is
+ * enough to divide out every prime factor <code>p</code> for which <code>exponent(t, n / p)</code> is still the
+ * identity. Otherwise the powers of the element are walked until they cycle back to the identity.
+ * <p>
+ * An instance of this class caches the order of every element it has seen, and materializes cyclic subgroups as arrays
+ * of indices into a table of the distinct elements it has seen (see {@link #indexOf(Object)}). Computing a cyclic
+ * subgroup also caches the order of every element in it, since the order of <code>exponent(t, k)</code> is
+ * <code>n / gcd(n, k)</code>. Instances are thread-safe.
+ *
+ * @param <T> the type of the group elements
+ */
+public final class ElementOrders<T> {
+
+    private final Group<T>        group;
+    private final long            groupOrder;
+    private final long[]          primeFactors;
+    private final Map<T, Long>    orders    = new ConcurrentHashMap<>();
+    private final Map<T, int[]>   subgroups = new ConcurrentHashMap<>();
+    private final List<T>         elements  = new ArrayList<>();
+    private final Map<T, Integer> indices   = new HashMap<>();
+
+    public ElementOrders(Group<T> group) {
+        this.group        = group;
+        this.groupOrder   = group.order();
+        this.primeFactors = groupOrder > 0 ? Groups.primeFactors(groupOrder) : null;
+    }
+
+    /**
+     * Computes the order of an element without caching. This is the default implementation of
+     * {@link Group#orderOf(Object)}.
+     *
+     * @param group the group.
+     * @param t     the group element.
+     * @return the order of <code>t</code>.
+     */
+    public static <T> long orderOf(Group<T> group, T t) {
+        long n = group.order();
+        return n > 0 ? orderOf(group, t, n, Groups.primeFactors(n)) : cycleLength(group, t);
+    }
+
+    private static <T> long orderOf(Group<T> group, T t, long groupOrder, long[] primeFactors) {
+        T    identity = group.identity();
+        long order    = groupOrder;
+        for (long p : primeFactors) {
+            while (order % p == 0 && identity.equals(Groups.power(group, t, order / p)))
+                order /= p;
+        }
+        return order;
+    }
+
+    /* walks the powers of t until they cycle back to the identity */
+    private static <T> long cycleLength(Group<T> group, T t) {
+        T    identity = group.identity();
+        T    power    = t;
+        long length   = 1;
+        while (!identity.equals(power)) {
+            power = group.binaryOperation(power, t);
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * @param t the group element.
+     * @return the order of <code>t</code>, or <code>0</code> if it has infinite order.
+     */
+    public long orderOf(T t) {
+        Long cached = orders.get(t);
+        if (cached != null)
+            return cached;
+        long order = groupOrder > 0 ? orderOf(group, t, groupOrder, primeFactors) : group.orderOf(t);
+        orders.put(t, order);
+        return order;
+    }
+
+    /**
+     * @param t the generating element, which must have finite order.
+     * @return the indices (see {@link #elementAt(int)}) of the powers of <code>t</code>, where the element at position
+     * <code>k</code> of the array is <code>exponent(t, k)</code>.
+     */
+    public int[] cyclicSubgroup(T t) {
+        int[] cached = subgroups.get(t);
+        if (cached != null)
+            return cached.clone();
+        long order = orderOf(t);
+        if (order == 0)
+            throw new IllegalArgumentException("An element of infinite order generates an infinite subgroup.");
+        if (order > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("The cyclic subgroup is too large to be materialized: " + order);
+        int[] subgroup = new int[(int) order];
+        T     power    = group.identity();
+        for (int k = 0; k < subgroup.length; k++) {
+            subgroup[k] = indexOf(power);
+            orders.putIfAbsent(power, order / Groups.gcd(order, k));
+            power = group.binaryOperation(power, t);
+        }
+        subgroups.put(t, subgroup);
+        return subgroup.clone();
+    }
+
+    /**
+     * @param t a group element.
+     * @return the index of <code>t</code> in the table of elements seen by this instance, adding it if necessary.
+     */
+    public synchronized int indexOf(T t) {
+        Integer index = indices.get(t);
+        if (index == null) {
+            index = elements.size();
+            elements.add(t);
+            indices.put(t, index);
+        }
+        return index;
+    }
+
+    /**
+     * @param index an index previously returned by this instance.
+     * @return the element with the given index.
+     */
+    public synchronized T elementAt(int index) {
+        return elements.get(index);
+    }
+}
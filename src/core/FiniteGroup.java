@@ -0,0 +1,21 @@
+package core;
+
+import java.util.List;
+
+/**
+ * A group with finitely many elements, all of which can be listed.
+ *
+ * @param <T> the type of the group elements
+ */
+public interface FiniteGroup<T> extends Group<T> {
+
+    /**
+     * @return an unmodifiable list of all the distinct elements of this group, starting with the identity element.
+     */
+    List<T> elements();
+
+    @Override
+    default long order() {
+        return elements().size();
+    }
+}
@@ -49,6 +49,28 @@ public interface Group<T> {
      */
     T inverseOf(T t);
 
+    /**
+     * @return the number of elements in this group, or <code>0</code> if this group is infinite or its order is not
+     * known. Knowing the order lets {@link #orderOf(Object)} find element orders among its divisors.
+     */
+    default long order() {
+        return 0;
+    }
+
+    /**
+     * The order of an element <code>t</code> is the smallest positive integer <code>n</code> such that
+     * <code>exponent(t, n)</code> is the identity element. The default implementation uses the divisors of
+     * {@link #order()} when it is known, and otherwise applies the binary operation until the powers of <code>t</code>
+     * cycle back to the identity, which does not terminate for elements of infinite order. Infinite groups should
+     * therefore override this method. Use an {@link ElementOrders} instance to cache the orders of many elements.
+     *
+     * @param t the group element.
+     * @return the order of <code>t</code>, or <code>0</code> if <code>t</code> has infinite order.
+     */
+    default long orderOf(T t) {
+        return ElementOrders.orderOf(this, t);
+    }
+
     /**
      * This is a utility function, serving as the definition of exponentiation for this group. Exponentiation is defined
      * as <code>exponent(t, 0)</code> being the <code>identity()</code> element, and <code>exponent(t, n)</code> being
@@ -0,0 +1,90 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A (left) <b>group action</b> of a group <code>G</code> on a set <code>S</code> is a way of applying every element of
+ * the group to the elements of the set, such that applying the identity element changes nothing, and applying
+ * <code>g</code> after applying <code>h</code> is the same as applying <code>binaryOperation(g, h)</code>. For example,
+ * the symmetries of a shape are a group acting on the shape, and the rotations of the plane about a point are a group
+ * acting on the points of the plane.
+ * <p>
+ * The orbit and stabilizer computations rely on the <code>equals</code> and <code>hashCode</code> methods of both the
+ * group elements and the elements of the set.
+ *
+ * @param <G> the type of the group elements
+ * @param <S> the type of the elements of the set on which the group acts
+ */
+public interface GroupAction<G, S> {
+
+    /**
+     * @return the group acting on the set.
+     */
+    Group<G> group();
+
+    /**
+     * Applies the given group element to the given element of the set. The implementer must take care to ensure that
+     * <code>act(group().identity(), s)</code> is equal to <code>s</code>, and that <code>act(g, act(h, s))</code> is
+     * equal to <code>act(group().binaryOperation(g, h), s)</code>.
+     *
+     * @param g the group element
+     * @param s the element of the set
+     * @return the result of applying <code>g</code> to <code>s</code>.
+     */
+    S act(G g, S s);
+
+    /**
+     * Computes the orbit of the given element under the subgroup generated by the given group elements, together with
+     * a generating set of its stabilizer. See {@link Orbit} for details.
+     *
+     * @param s          the element whose orbit is computed.
+     * @param generators the group elements generating the acting (sub)group.
+     * @return the orbit of <code>s</code>.
+     */
+    default Orbit<G, S> orbit(S s, Collection<G> generators) {
+        return Orbit.of(this, s, generators);
+    }
+
+    /**
+     * Partitions the given elements by their orbits under the subgroup generated by the given group elements. Two of
+     * the given elements end up in the same part if and only if one can be obtained from the other by the action.
+     *
+     * @param elements   the elements to be partitioned.
+     * @param generators the group elements generating the acting (sub)group.
+     * @return the parts of the partition, in the order of their first element in <code>elements</code>.
+     */
+    default List<Set<S>> orbits(Collection<S> elements, Collection<G> generators) {
+        Set<S>       remaining = new LinkedHashSet<>(elements);
+        List<Set<S>> parts     = new ArrayList<>();
+        while (!remaining.isEmpty()) {
+            Iterator<S> iterator = remaining.iterator();
+            S           first    = iterator.next();
+            iterator.remove();
+            Orbit<G, S> orbit = orbit(first, generators);
+            Set<S>      part  = new LinkedHashSet<>();
+            part.add(first);
+            // walk whichever of the two sets is smaller
+            if (orbit.size() < remaining.size()) {
+                for (S s : orbit.points()) {
+                    if (remaining.remove(s))
+                        part.add(s);
+                }
+            } else {
+                for (Iterator<S> it = remaining.iterator(); it.hasNext(); ) {
+                    S s = it.next();
+                    if (orbit.contains(s)) {
+                        part.add(s);
+                        it.remove();
+                    }
+                }
+            }
+            parts.add(part);
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,225 @@
+package core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Checks for homomorphisms and isomorphisms between finite groups. A <b>homomorphism</b> from <code>G</code> to
+ * <code>H</code> is a function <code>f</code> such that <code>f(binaryOperation(x, y))</code> is equal to the binary
+ * operation of <code>f(x)</code> and <code>f(y)</code> in <code>H</code>, and an <b>isomorphism</b> is a homomorphism
+ * that is also a bijection.
+ * <p>
+ * Isomorphic groups agree on many cheap {@link Invariants}, which are computed (in parallel) and compared first, so
+ * that most pairs of non-isomorphic groups are told apart without any search. Only if the invariants agree does the
+ * engine pick a small generating set of <code>G</code> and backtrack over the images of the generators, trying only
+ * elements of <code>H</code> with the same order.
+ */
+public final class GroupIsomorphism {
+
+    private GroupIsomorphism() {
+    }
+
+    /**
+     * Checks whether the given function is a homomorphism, by checking every pair of elements of <code>g</code> in
+     * parallel.
+     *
+     * @param g the domain.
+     * @param h the codomain.
+     * @param f the candidate homomorphism.
+     * @return <code>true</code> if <code>f</code> is a homomorphism from <code>g</code> to <code>h</code>, and
+     * <code>false</code> otherwise.
+     */
+    public static <A, B> boolean isHomomorphism(FiniteGroup<A> g, Group<B> h, Function<? super A, ? extends B> f) {
+        List<A> elements = g.elements();
+        Map<A, B> images = new HashMap<>();
+        for (A x : elements)
+            images.put(x, f.apply(x));
+        return elements.parallelStream().allMatch(x -> elements.stream().allMatch(y -> {
+            B product = h.binaryOperation(images.get(x), images.get(y));
+            return images.get(g.binaryOperation(x, y)).equals(product);
+        }));
+    }
+
+    /**
+     * @return <code>true</code> if the two groups are isomorphic, and <code>false</code> otherwise.
+     */
+    public static <A, B> boolean areIsomorphic(FiniteGroup<A> g, FiniteGroup<B> h) {
+        return isomorphism(g, h).isPresent();
+    }
+
+    /**
+     * Searches for an isomorphism between two finite groups.
+     *
+     * @param g the domain.
+     * @param h the codomain.
+     * @return an isomorphism from <code>g</code> to <code>h</code>, as a map from every element of <code>g</code> to
+     * its image, or an empty optional if the groups are not isomorphic.
+     */
+    public static <A, B> Optional<Map<A, B>> isomorphism(FiniteGroup<A> g, FiniteGroup<B> h) {
+        if (g.order() != h.order())
+            return Optional.empty();
+        ElementOrders<A> gOrders = new ElementOrders<>(g);
+        ElementOrders<B> hOrders = new ElementOrders<>(h);
+        CompletableFuture<Invariants> gInvariants = CompletableFuture.supplyAsync(() -> Invariants.of(g, gOrders));
+        CompletableFuture<Invariants> hInvariants = CompletableFuture.supplyAsync(() -> Invariants.of(h, hOrders));
+        if (!gInvariants.join().equals(hInvariants.join()))
+            return Optional.empty();
+
+        List<A> generators = generators(g, gOrders);
+        Map<Long, List<B>> byOrder = h.elements().stream().collect(Collectors.groupingBy(hOrders::orderOf));
+        List<List<B>> candidates = new ArrayList<>();
+        for (A generator : generators)
+            candidates.add(byOrder.getOrDefault(gOrders.orderOf(generator), Collections.emptyList()));
+        return search(g, h, generators, candidates, new ArrayList<>());
+    }
+
+    /* assigns an image to every generator in turn, and tries to extend each complete assignment */
+    private static <A, B> Optional<Map<A, B>> search(FiniteGroup<A> g, FiniteGroup<B> h, List<A> generators,
+                                                      List<List<B>> candidates, List<B> images) {
+        if (images.size() == generators.size())
+            return Optional.ofNullable(extend(g, h, generators, images));
+        for (B candidate : candidates.get(images.size())) {
+            images.add(candidate);
+            Optional<Map<A, B>> found = search(g, h, generators, candidates, images);
+            if (found.isPresent())
+                return found;
+            images.remove(images.size() - 1);
+        }
+        return Optional.empty();
+    }
+
+    /* extends the images of the generators to a map on all of g, or returns null if that is not an isomorphism */
+    private static <A, B> Map<A, B> extend(FiniteGroup<A> g, FiniteGroup<B> h, List<A> generators, List<B> images) {
+        Map<A, B> map = new HashMap<>();
+        map.put(g.identity(), h.identity());
+        Queue<A> queue = new ArrayDeque<>();
+        queue.add(g.identity());
+        while (!queue.isEmpty()) {
+            A x = queue.remove();
+            for (int i = 0; i < generators.size(); i++) {
+                A y     = g.binaryOperation(x, generators.get(i));
+                B image = h.binaryOperation(map.get(x), images.get(i));
+                B old   = map.putIfAbsent(y, image);
+                if (old == null)
+                    queue.add(y);
+                else if (!old.equals(image))
+                    return null;
+            }
+        }
+        // consistent on every edge x -> x * generator, so a homomorphism; it remains to check it is a bijection
+        return new HashSet<>(map.values()).size() == h.order() ? map : null;
+    }
+
+    /* greedily picks elements of the largest order outside the subgroup generated so far */
+    private static <A> List<A> generators(FiniteGroup<A> g, ElementOrders<A> orders) {
+        List<A> byOrder = new ArrayList<>(g.elements());
+        byOrder.sort(Comparator.comparingLong((A x) -> orders.orderOf(x)).reversed());
+        List<A> generators = new ArrayList<>();
+        Set<A>  subgroup   = new HashSet<>();
+        subgroup.add(g.identity());
+        for (A candidate : byOrder) {
+            if (subgroup.size() == g.order())
+                break;
+            if (subgroup.contains(candidate))
+                continue;
+            generators.add(candidate);
+            // closure of the subgroup under the generators chosen so far
+            Queue<A> queue = new ArrayDeque<>(subgroup);
+            while (!queue.isEmpty()) {
+                A x = queue.remove();
+                for (A generator : generators) {
+                    A y = g.binaryOperation(x, generator);
+                    if (subgroup.add(y))
+                        queue.add(y);
+                }
+            }
+        }
+        return generators;
+    }
+
+    /**
+     * Properties of a finite group that are preserved by isomorphisms: the order of the group, the number of elements
+     * of every order, the size of the center (the elements that commute with every element), and the number of
+     * ordered pairs of commuting elements.
+     */
+    public static final class Invariants {
+
+        public final long                  order;
+        public final SortedMap<Long, Long> orderHistogram;
+        public final long                  centerSize;
+        public final long                  commutingPairs;
+
+        private Invariants(long order, SortedMap<Long, Long> orderHistogram, long centerSize, long commutingPairs) {
+            this.order          = order;
+            this.orderHistogram = orderHistogram;
+            this.centerSize     = centerSize;
+            this.commutingPairs = commutingPairs;
+        }
+
+        /**
+         * Computes the invariants of the given group, in parallel over its elements.
+         */
+        public static <T> Invariants of(FiniteGroup<T> g) {
+            return of(g, new ElementOrders<>(g));
+        }
+
+        static <T> Invariants of(FiniteGroup<T> g, ElementOrders<T> orders) {
+            List<T> elements = g.elements();
+            SortedMap<Long, Long> histogram = elements.parallelStream().collect(
+                    Collectors.groupingBy(orders::orderOf, TreeMap::new, Collectors.counting()));
+            long[] commuting = elements.parallelStream()
+                                       .mapToLong(x -> elements.stream()
+                                                               .filter(y -> g.binaryOperation(x, y)
+                                                                             .equals(g.binaryOperation(y, x)))
+                                                               .count())
+                                       .toArray();
+            long centerSize     = 0;
+            long commutingPairs = 0;
+            for (long count : commuting) {
+                if (count == elements.size())
+                    centerSize++;
+                commutingPairs += count;
+            }
+            return new Invariants(elements.size(), histogram, centerSize, commutingPairs);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Invariants)) return false;
+
+            Invariants that = (Invariants) o;
+
+            return order == that.order && centerSize == that.centerSize && commutingPairs == that.commutingPairs &&
+                   orderHistogram.equals(that.orderHistogram);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Long.hashCode(order);
+            result = 31 * result + orderHistogram.hashCode();
+            result = 31 * result + Long.hashCode(centerSize);
+            return 31 * result + Long.hashCode(commutingPairs);
+        }
+
+        @Override
+        public String toString() {
+            return "Invariants{order=" + order + ", orderHistogram=" + orderHistogram + ", centerSize=" + centerSize +
+                   ", commutingPairs=" + commutingPairs + "}";
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package core;
+
+import java.util.Arrays;
+
+/**
+ * Utility functions over arbitrary {@link Group} implementations.
+ */
+public final class Groups {
+
+    private Groups() {
+    }
+
+    /**
+     * Computes <code>exponent(t, k)</code> by repeated squaring, using <code>O(log k)</code> binary operations instead
+     * of <code>k</code>. The result is the same as that of {@link Group#exponent(Object, int)} by associativity.
+     *
+     * @param group the group.
+     * @param t     the group element serving as the base.
+     * @param k     the non-negative exponent.
+     * @return the result of the binary operation applied <code>k</code> times on <code>t</code>.
+     */
+    public static <T> T power(Group<T> group, T t, long k) {
+        if (k < 0)
+            throw new IllegalArgumentException("The exponent must be a non-negative integer value.");
+        T result = group.identity();
+        T base   = t;
+        while (k > 0) {
+            if ((k & 1) == 1)
+                result = group.binaryOperation(result, base);
+            k >>>= 1;
+            if (k > 0)
+                base = group.binaryOperation(base, base);
+        }
+        return result;
+    }
+
+    /**
+     * @param n a positive integer.
+     * @return the distinct prime factors of <code>n</code>, in increasing order.
+     */
+    static long[] primeFactors(long n) {
+        if (n < 1)
+            throw new IllegalArgumentException("Only positive integers have a prime factorization.");
+        long[] factors = new long[64];
+        int    count   = 0;
+        for (long p = 2; p <= n / p; p += (p == 2 ? 1 : 2)) {
+            if (n % p == 0) {
+                factors[count++] = p;
+                while (n % p == 0)
+                    n /= p;
+            }
+        }
+        if (n > 1)
+            factors[count++] = n;
+        return Arrays.copyOf(factors, count);
+    }
+
+    static long gcd(long a, long b) {
+        while (b != 0) {
+            long r = a % b;
+            a = b;
+            b = r;
+        }
+        return Math.abs(a);
+    }
+}
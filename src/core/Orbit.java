@@ -0,0 +1,122 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The <b>orbit</b> of an element <code>s</code> under a group action is the set of all elements <code>act(g, s)</code>
+ * for <code>g</code> in the acting group, and the <b>stabilizer</b> of <code>s</code> is the subgroup of all
+ * <code>g</code> with <code>act(g, s)</code> equal to <code>s</code>.
+ * <p>
+ * An orbit is computed by a breadth-first search from <code>s</code>, applying every generator to every element of the
+ * current frontier. Large frontiers are expanded in parallel, and visited elements are tracked in a concurrent hash
+ * map. For every element <code>t</code> of the orbit the search also records a group element taking <code>s</code> to
+ * <code>t</code> (a <em>transversal</em>), and from these it collects the Schreier generators of the stabilizer.
+ *
+ * @param <G> the type of the group elements
+ * @param <S> the type of the elements of the set on which the group acts
+ */
+public final class Orbit<G, S> {
+
+    /* frontiers smaller than this are expanded sequentially */
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private final S         point;
+    private final Map<S, G> transversal;
+    private final Set<G>    stabilizerGenerators;
+
+    private Orbit(S point, Map<S, G> transversal, Set<G> stabilizerGenerators) {
+        this.point                = point;
+        this.transversal          = transversal;
+        this.stabilizerGenerators = stabilizerGenerators;
+    }
+
+    /**
+     * Computes the orbit of <code>s</code> under the subgroup generated by the given group elements.
+     *
+     * @param action     the group action.
+     * @param s          the element whose orbit is computed.
+     * @param generators the group elements generating the acting (sub)group.
+     * @return the orbit of <code>s</code>.
+     */
+    public static <G, S> Orbit<G, S> of(GroupAction<G, S> action, S s, Collection<G> generators) {
+        Group<G>             group       = action.group();
+        G                    identity    = group.identity();
+        Map<S, G>            transversal = new ConcurrentHashMap<>();
+        Set<G>               schreier    = ConcurrentHashMap.newKeySet();
+        List<G>              gens        = new ArrayList<>(generators);
+        transversal.put(s, identity);
+
+        List<S> frontier = Collections.singletonList(s);
+        while (!frontier.isEmpty()) {
+            Queue<S> next = new ConcurrentLinkedQueue<>();
+            (frontier.size() < PARALLEL_THRESHOLD ? frontier.stream() : frontier.parallelStream()).forEach(t -> {
+                G toT = transversal.get(t);
+                for (G g : gens) {
+                    S u   = action.act(g, t);
+                    G toU = group.binaryOperation(g, toT);
+                    G old = transversal.putIfAbsent(u, toU);
+                    if (old == null) {
+                        next.add(u);
+                    } else {
+                        // two ways of reaching u from s; their difference fixes s
+                        G stabilizing = group.binaryOperation(group.inverseOf(old), toU);
+                        if (!identity.equals(stabilizing))
+                            schreier.add(stabilizing);
+                    }
+                }
+            });
+            frontier = new ArrayList<>(next);
+        }
+        return new Orbit<>(s, transversal, schreier);
+    }
+
+    /**
+     * @return the element whose orbit this is.
+     */
+    public S point() {
+        return point;
+    }
+
+    /**
+     * @return an unmodifiable view of the elements of this orbit.
+     */
+    public Set<S> points() {
+        return Collections.unmodifiableSet(transversal.keySet());
+    }
+
+    /**
+     * @return the number of elements in this orbit.
+     */
+    public int size() {
+        return transversal.size();
+    }
+
+    public boolean contains(S s) {
+        return transversal.containsKey(s);
+    }
+
+    /**
+     * @param t an element of this orbit.
+     * @return a group element <code>g</code> with <code>act(g, point())</code> equal to <code>t</code>, or
+     * <code>null</code> if <code>t</code> is not in this orbit.
+     */
+    public G transversal(S t) {
+        return transversal.get(t);
+    }
+
+    /**
+     * @return an unmodifiable set of group elements (other than the identity) that generate the stabilizer of
+     * <code>point()</code> within the acting subgroup. The set is empty if the stabilizer is trivial.
+     */
+    public Set<G> stabilizerGenerators() {
+        return Collections.unmodifiableSet(stabilizerGenerators);
+    }
+}
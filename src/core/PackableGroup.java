@@ -0,0 +1,71 @@
+package core;
+
+/**
+ * A group whose elements can be encoded in a fixed number of bits of a <code>long</code>. Working on the encoded
+ * values lets combinators such as {@link PackedDirectProduct} operate on many components at once without allocating
+ * an object for every intermediate element.
+ * <p>
+ * The implementer must take care to ensure that <code>pack</code> and <code>unpack</code> are inverses of each other,
+ * that every packed value fits in the lowest {@link #bitWidth()} bits, and that the packed operations agree with the
+ * corresponding operations on unpacked elements.
+ *
+ * @param <T> the type of the group elements
+ */
+public interface PackableGroup<T> extends Group<T> {
+
+    /**
+     * @return the number of low-order bits used by the packed elements, between 1 and 64.
+     */
+    int bitWidth();
+
+    /**
+     * @param t a group element.
+     * @return the packed encoding of <code>t</code>.
+     */
+    long pack(T t);
+
+    /**
+     * @param bits the packed encoding of a group element.
+     * @return the group element.
+     */
+    T unpack(long bits);
+
+    /**
+     * @return the result of the binary operation on the two packed elements, as a packed element.
+     */
+    long packedOperation(long one, long other);
+
+    /**
+     * @return the inverse of the packed element, as a packed element.
+     */
+    long packedInverse(long t);
+
+    /**
+     * @return the identity element, as a packed element.
+     */
+    default long packedIdentity() {
+        return pack(identity());
+    }
+
+    /**
+     * Computes the result of the binary operation applied <code>k</code> times on a packed element, by repeated
+     * squaring.
+     *
+     * @param t the packed element serving as the base.
+     * @param k the non-negative exponent.
+     * @return the power, as a packed element.
+     */
+    default long packedExponent(long t, long k) {
+        if (k < 0)
+            throw new IllegalArgumentException("The exponent must be a non-negative integer value.");
+        long result = packedIdentity();
+        while (k > 0) {
+            if ((k & 1) == 1)
+                result = packedOperation(result, t);
+            k >>>= 1;
+            if (k > 0)
+                t = packedOperation(t, t);
+        }
+        return result;
+    }
+}
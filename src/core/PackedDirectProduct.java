@@ -0,0 +1,131 @@
+package core;
+
+/**
+ * The direct product of two {@link PackableGroup}s, with every element packed into a single <code>long</code>: the
+ * first component in the lowest bits and the second component right above it. The packed operations, inverses and
+ * powers work componentwise on the bits without allocating, and since the product is itself packable, products can be
+ * nested as long as the total width stays within 64 bits.
+ * <p>
+ * The unpacked {@link Group} methods are also available, and allocate one {@link DirectProduct.Pair} per result.
+ *
+ * @param <A> the type of the elements of the first group
+ * @param <B> the type of the elements of the second group
+ */
+public class PackedDirectProduct<A, B> implements PackableGroup<DirectProduct.Pair<A, B>> {
+
+    private final PackableGroup<A> first;
+    private final PackableGroup<B> second;
+    private final int              shift;
+    private final long             firstMask;
+    private final long             secondMask;
+
+    public PackedDirectProduct(PackableGroup<A> first, PackableGroup<B> second) {
+        if (first.bitWidth() + second.bitWidth() > 64)
+            throw new IllegalArgumentException("The packed components need " + (first.bitWidth() + second.bitWidth()) +
+                                               " bits, but a long only has 64.");
+        this.first      = first;
+        this.second     = second;
+        this.shift      = first.bitWidth();
+        this.firstMask  = mask(first.bitWidth());
+        this.secondMask = mask(second.bitWidth());
+    }
+
+    private static long mask(int bits) {
+        return bits == 64 ? -1L : (1L << bits) - 1;
+    }
+
+    public PackableGroup<A> first() {
+        return first;
+    }
+
+    public PackableGroup<B> second() {
+        return second;
+    }
+
+    /**
+     * @return the packed first component of the packed pair.
+     */
+    public long packedFirst(long pair) {
+        return pair & firstMask;
+    }
+
+    /**
+     * @return the packed second component of the packed pair.
+     */
+    public long packedSecond(long pair) {
+        return (pair >>> shift) & secondMask;
+    }
+
+    /**
+     * @return the packed pair of the two packed components.
+     */
+    public long packedPair(long packedFirst, long packedSecond) {
+        return (packedFirst & firstMask) | (packedSecond & secondMask) << shift;
+    }
+
+    @Override
+    public int bitWidth() {
+        return first.bitWidth() + second.bitWidth();
+    }
+
+    @Override
+    public long pack(DirectProduct.Pair<A, B> t) {
+        return packedPair(first.pack(t.first), second.pack(t.second));
+    }
+
+    @Override
+    public DirectProduct.Pair<A, B> unpack(long bits) {
+        return new DirectProduct.Pair<>(first.unpack(packedFirst(bits)), second.unpack(packedSecond(bits)));
+    }
+
+    @Override
+    public long packedOperation(long one, long other) {
+        return packedPair(first.packedOperation(packedFirst(one), packedFirst(other)),
+                          second.packedOperation(packedSecond(one), packedSecond(other)));
+    }
+
+    @Override
+    public long packedInverse(long t) {
+        return packedPair(first.packedInverse(packedFirst(t)), second.packedInverse(packedSecond(t)));
+    }
+
+    @Override
+    public long packedIdentity() {
+        return packedPair(first.packedIdentity(), second.packedIdentity());
+    }
+
+    @Override
+    public long packedExponent(long t, long k) {
+        return packedPair(first.packedExponent(packedFirst(t), k), second.packedExponent(packedSecond(t), k));
+    }
+
+    @Override
+    public DirectProduct.Pair<A, B> binaryOperation(DirectProduct.Pair<A, B> one, DirectProduct.Pair<A, B> other) {
+        return unpack(packedOperation(pack(one), pack(other)));
+    }
+
+    @Override
+    public DirectProduct.Pair<A, B> identity() {
+        return unpack(packedIdentity());
+    }
+
+    @Override
+    public DirectProduct.Pair<A, B> inverseOf(DirectProduct.Pair<A, B> t) {
+        return unpack(packedInverse(pack(t)));
+    }
+
+    @Override
+    public DirectProduct.Pair<A, B> exponent(DirectProduct.Pair<A, B> t, int k) {
+        return unpack(packedExponent(pack(t), k));
+    }
+
+    @Override
+    public long order() {
+        return DirectProduct.productOrder(first.order(), second.order());
+    }
+
+    @Override
+    public long orderOf(DirectProduct.Pair<A, B> t) {
+        return DirectProduct.lcm(first.orderOf(t.first), second.orderOf(t.second));
+    }
+}
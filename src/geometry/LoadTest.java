@@ -0,0 +1,363 @@
+package geometry;
+
+import arithmetic.ZPlus;
+import core.DiscreteLog;
+import core.PackedDirectProduct;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An end-to-end load generator for the {@link Symmetries} and {@link core.Group} implementations. It runs a seeded,
+ * random mix of workloads for a fixed duration and reports the throughput and the latency percentiles of every
+ * workload, as text or as JSON. The same arguments and seed always produce the same sequence of inputs on every
+ * thread.
+ * <p>
+ * By default the generator runs closed-loop: every thread starts the next operation as soon as the previous one is
+ * done. With <code>--rate</code>, it runs open-loop instead: operations are scheduled at the target rate, and the
+ * latency of each one is measured from its scheduled start, so that time spent falling behind is not hidden.
+ * <pre>
+ *   java geometry.LoadTest [--seed 42] [--duration 10] [--concurrency 4] [--rate 0] [--size 12]
+ *                          [--mix square=1,regular=1,irregular=1,group=1] [--json]
+ * </pre>
+ *
+ * @see GeometryTest
+ */
+public class LoadTest {
+
+    enum Workload {
+        SQUARE, REGULAR, IRREGULAR, GROUP
+    }
+
+    /* parking wakes up late by up to tens of microseconds, so in open-loop mode the threads only park until this long
+     * before an operation is due, and spin for the rest */
+    private static final long SPIN_NANOS = 100_000;
+
+    private final long                   seed;
+    private final long                   durationNanos;
+    private final int                    concurrency;
+    private final double                 rate;
+    private final int                    size;
+    private final Map<Workload, Integer> mix;
+
+    LoadTest(long seed, double durationSeconds, int concurrency, double rate, int size, Map<Workload, Integer> mix) {
+        this.seed          = seed;
+        this.durationNanos = (long) (durationSeconds * 1e9);
+        this.concurrency   = concurrency;
+        this.rate          = rate;
+        this.size          = size;
+        this.mix           = mix;
+    }
+
+    public static void main(String... args) throws Exception {
+        long                   seed        = 42;
+        double                 duration    = 10;
+        int                    concurrency = Runtime.getRuntime().availableProcessors();
+        double                 rate        = 0;
+        int                    size        = 12;
+        boolean                json        = false;
+        Map<Workload, Integer> mix         = new EnumMap<>(Workload.class);
+        for (Workload w : Workload.values())
+            mix.put(w, 1);
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--seed":        seed = Long.parseLong(args[++i]);          break;
+                case "--duration":    duration = Double.parseDouble(args[++i]);  break;
+                case "--concurrency": concurrency = Integer.parseInt(args[++i]); break;
+                case "--rate":        rate = Double.parseDouble(args[++i]);      break;
+                case "--size":        size = Integer.parseInt(args[++i]);        break;
+                case "--json":        json = true;                               break;
+                case "--mix":
+                    for (Workload w : Workload.values())
+                        mix.put(w, 0);
+                    for (String entry : args[++i].split(",")) {
+                        String[] parts = entry.split("=");
+                        mix.put(Workload.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1]));
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        if (concurrency < 1 || size < 2 || duration <= 0 || rate < 0)
+            throw new IllegalArgumentException("The concurrency, size, duration and rate must be positive.");
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0)
+            throw new IllegalArgumentException("The workload mix must have a positive weight.");
+
+        Report report = new LoadTest(seed, duration, concurrency, rate, size, mix).run();
+        System.out.println(json ? report.toJson() : report.toString());
+    }
+
+    Report run() throws Exception {
+        ExecutorService      pool    = Executors.newFixedThreadPool(concurrency);
+        List<Future<Worker>> futures = new ArrayList<>();
+        long                 start   = System.nanoTime();
+        try {
+            for (int t = 0; t < concurrency; t++) {
+                futures.add(pool.submit(new Worker(t, start)));
+            }
+            Map<Workload, Histogram> merged = new EnumMap<>(Workload.class);
+            long                     sink   = 0;
+            for (Future<Worker> future : futures) {
+                Worker worker = future.get();
+                sink ^= worker.sink;
+                for (Map.Entry<Workload, Histogram> e : worker.histograms.entrySet())
+                    merged.computeIfAbsent(e.getKey(), w -> new Histogram()).add(e.getValue());
+            }
+            return new Report(merged, (System.nanoTime() - start) / 1e9, sink);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /* one thread of the load, with its own random inputs and histograms */
+    private class Worker implements Callable<Worker> {
+
+        private final Random                   random;
+        private final int                      phase;
+        private final long                     start;
+        private final Map<Workload, Histogram> histograms = new EnumMap<>(Workload.class);
+        private final Workload[]               weighted;
+        private final RadialGraphRotations     rotations  = new RadialGraphRotations(size);
+        private final PackedDirectProduct<Integer, Integer> product =
+                new PackedDirectProduct<>(rotations, new ZPlus());
+        private long                           sink;
+
+        Worker(int phase, long start) {
+            this.random = new Random(seed + phase);
+            this.phase  = phase;
+            this.start  = start;
+            List<Workload> choices = new ArrayList<>();
+            for (Map.Entry<Workload, Integer> e : mix.entrySet()) {
+                for (int i = 0; i < e.getValue(); i++)
+                    choices.add(e.getKey());
+            }
+            this.weighted = choices.toArray(new Workload[0]);
+        }
+
+        @Override
+        public Worker call() {
+            // in open-loop mode every thread takes an equal share of the target rate
+            long interval = rate > 0 ? (long) (1e9 * concurrency / rate) : 0;
+            long deadline = start + durationNanos;
+            for (long n = 0; ; n++) {
+                Workload workload  = weighted[random.nextInt(weighted.length)];
+                long     preparing = System.nanoTime();
+                Runnable operation = prepare(workload);
+                long     prepared  = System.nanoTime();
+                // the threads are out of phase by an equal share of the interval
+                long scheduled = interval > 0 ? start + n * interval + phase * interval / concurrency : prepared;
+                if (scheduled >= deadline || prepared >= deadline)
+                    return this;
+                long now;
+                while ((now = System.nanoTime()) < scheduled - SPIN_NANOS)
+                    LockSupport.parkNanos(scheduled - SPIN_NANOS - now);
+                while (System.nanoTime() < scheduled) {
+                    // spin
+                }
+                operation.run();
+                long done = System.nanoTime();
+                // when behind schedule, the time spent generating the input after the operation was due is not part
+                // of its latency
+                long generating = Math.max(0, prepared - Math.max(preparing, scheduled));
+                histograms.computeIfAbsent(workload, w -> new Histogram()).record(done - scheduled - generating);
+            }
+        }
+
+        /* generates the random input outside of the measured time, and returns the measured operation */
+        private Runnable prepare(Workload workload) {
+            switch (workload) {
+                case SQUARE: {
+                    Square square = randomSquare();
+                    Square other  = random.nextBoolean() ? square.rotateBy(90 * random.nextInt(4))
+                                                         : square.rotateBy(random.nextInt(360));
+                    return () -> {
+                        SquareSymmetries symmetries = new SquareSymmetries();
+                        sink += symmetries.symmetriesOf(square).size();
+                        sink += symmetries.areSymmetric(square, other) ? 1 : 0;
+                    };
+                }
+                case REGULAR:
+                case IRREGULAR: {
+                    RadialGraph graph = randomGraph(workload == Workload.REGULAR);
+                    RadialGraph other = graph.rotateBy(random.nextInt(360));
+                    return () -> {
+                        RadialGraphSymmetries symmetries = new RadialGraphSymmetries();
+                        sink += symmetries.symmetriesOf(graph).size();
+                        sink += symmetries.areSymmetric(graph, other) ? 1 : 0;
+                    };
+                }
+                default: {
+                    long x = product.packedPair(random.nextInt(size), random.nextInt());
+                    int  g = random.nextInt(size);
+                    int  k = random.nextInt(size);
+                    return () -> {
+                        long power = product.packedExponent(x, k);
+                        sink += product.packedOperation(power, product.packedInverse(x));
+                        sink += DiscreteLog.babyStepGiantStep(rotations, g, rotations.exponent(g, k));
+                    };
+                }
+            }
+        }
+
+        private Square randomSquare() {
+            double x    = random.nextInt(200) - 100;
+            double y    = random.nextInt(200) - 100;
+            double side = 1 + random.nextInt(10);
+            Square square = new Square(new Point("a", x, y), new Point("b", x + side, y),
+                                       new Point("c", x + side, y + side), new Point("d", x, y + side));
+            return square.rotateBy(random.nextInt(360));
+        }
+
+        /* the spokes of a regular graph are evenly spaced, those of an irregular graph are at random angles */
+        private RadialGraph randomGraph(boolean regular) {
+            Point   center = new Point("center", random.nextInt(200) - 100, random.nextInt(200) - 100);
+            double  radius = 1 + random.nextInt(10);
+            Point[] spokes = new Point[size];
+            for (int i = 0; i < size; i++) {
+                double angle = regular ? 2 * Math.PI * i / size : 2 * Math.PI * random.nextDouble();
+                spokes[i] = new Point("p" + i, center.x + radius * Math.cos(angle), center.y + radius * Math.sin(angle));
+            }
+            // the spokes only have equal lengths up to rounding
+            return RadialGraph.unchecked(center, spokes);
+        }
+    }
+
+    /**
+     * A latency histogram in the style of HdrHistogram: values (in nanoseconds) are counted in buckets whose width
+     * doubles with every power of two, each split into 64 linear sub-buckets, so every recorded value is kept with a
+     * relative error below 2%.
+     */
+    static final class Histogram {
+
+        private static final int SUB_BUCKETS = 64;
+
+        private final long[] counts = new long[SUB_BUCKETS * 60];
+        private long         total;
+        private long         max;
+
+        void record(long nanos) {
+            long value = Math.max(nanos, 0);
+            counts[index(value)]++;
+            total++;
+            max = Math.max(max, value);
+        }
+
+        void add(Histogram other) {
+            for (int i = 0; i < counts.length; i++)
+                counts[i] += other.counts[i];
+            total += other.total;
+            max = Math.max(max, other.max);
+        }
+
+        long count() {
+            return total;
+        }
+
+        long max() {
+            return max;
+        }
+
+        /**
+         * @param percentile a percentile between 0 and 100
+         * @return the largest value equivalent to the value at the given percentile
+         */
+        long percentile(double percentile) {
+            long rank  = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+            long count = 0;
+            for (int i = 0; i < counts.length; i++) {
+                count += counts[i];
+                if (count >= rank)
+                    return Math.min(highestEquivalentValue(i), max);
+            }
+            return max;
+        }
+
+        /* index = 64 * bucket + sub-bucket, where the value is sub-bucket << bucket */
+        private static int index(long value) {
+            int bucket = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - 6);
+            return SUB_BUCKETS * bucket + (int) (value >>> bucket);
+        }
+
+        private static long highestEquivalentValue(int index) {
+            int bucket = Math.max(0, index / SUB_BUCKETS - 1);
+            return ((long) (index - SUB_BUCKETS * bucket + 1) << bucket) - 1;
+        }
+    }
+
+    /**
+     * The throughput and latency percentiles of a run, per workload and in total.
+     */
+    static final class Report {
+
+        private static final double[] PERCENTILES = {50, 99, 99.9};
+
+        private final Map<Workload, Histogram> histograms;
+        private final Histogram                overall = new Histogram();
+        private final double                   seconds;
+        private final long                     sink;
+
+        Report(Map<Workload, Histogram> histograms, double seconds, long sink) {
+            this.histograms = histograms;
+            this.seconds    = seconds;
+            this.sink       = sink;
+            for (Histogram h : histograms.values())
+                overall.add(h);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.ROOT, "%-10s %12s %12s %12s %12s %12s %12s%n", "workload", "ops",
+                                    "ops/s", "p50 (us)", "p99 (us)", "p99.9 (us)", "max (us)"));
+            for (Map.Entry<Workload, Histogram> e : histograms.entrySet())
+                appendRow(sb, e.getKey().name().toLowerCase(Locale.ROOT), e.getValue());
+            appendRow(sb, "total", overall);
+            sb.append(String.format(Locale.ROOT, "%.2f s (checksum %d)", seconds, sink));
+            return sb.toString();
+        }
+
+        private void appendRow(StringBuilder sb, String name, Histogram h) {
+            sb.append(String.format(Locale.ROOT, "%-10s %12d %12.1f", name, h.count(), h.count() / seconds));
+            for (double p : PERCENTILES)
+                sb.append(String.format(Locale.ROOT, " %12.1f", h.percentile(p) / 1e3));
+            sb.append(String.format(Locale.ROOT, " %12.1f%n", h.max() / 1e3));
+        }
+
+        String toJson() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.ROOT, "{\"seconds\": %.3f, \"workloads\": {", seconds));
+            String separator = "";
+            for (Map.Entry<Workload, Histogram> e : histograms.entrySet()) {
+                sb.append(separator).append('"').append(e.getKey().name().toLowerCase(Locale.ROOT)).append("\": ");
+                appendJson(sb, e.getValue());
+                separator = ", ";
+            }
+            sb.append("}, \"total\": ");
+            appendJson(sb, overall);
+            return sb.append('}').toString();
+        }
+
+        private void appendJson(StringBuilder sb, Histogram h) {
+            sb.append(String.format(Locale.ROOT, "{\"ops\": %d, \"opsPerSecond\": %.1f", h.count(), h.count() / seconds));
+            for (double p : PERCENTILES)
+                sb.append(String.format(Locale.ROOT, ", \"p%sNanos\": %d", format(p), h.percentile(p)));
+            sb.append(String.format(Locale.ROOT, ", \"maxNanos\": %d}", h.max()));
+        }
+
+        private static String format(double percentile) {
+            return percentile == Math.rint(percentile) ? Long.toString((long) percentile)
+                                                       : Double.toString(percentile).replace('.', '_');
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package geometry;
+
+import java.util.List;
+
+/**
+ * A mutable companion to {@link RadialGraph}. The center and the neighbors are kept in reusable arrays, which only grow
+ * when a larger graph is loaded, and rotations and translations are applied in place without allocating, using the
+ * same arithmetic as the corresponding {@link RadialGraph} methods. A <code>MutableRadialGraph</code> can be loaded from
+ * a radial graph with {@link #set(RadialGraph)} and turned back into an immutable graph with {@link #freeze()}.
+ * <p>
+ * Instances are not thread-safe; each thread should use its own.
+ */
+public class MutableRadialGraph {
+
+    private String   centerName;
+    private double   centerX;
+    private double   centerY;
+    private String[] names = new String[0];
+    private double[] xs    = new double[0];
+    private double[] ys    = new double[0];
+    private int      size;
+    private boolean  lonely;
+
+    public MutableRadialGraph() {
+    }
+
+    public MutableRadialGraph(RadialGraph graph) {
+        set(graph);
+    }
+
+    /**
+     * Replaces the center and the neighbors of this mutable graph by those of the given graph.
+     *
+     * @param graph the radial graph to be copied
+     * @return this mutable graph
+     */
+    public MutableRadialGraph set(RadialGraph graph) {
+        Point center = graph.getCenter();
+        centerName = center.name;
+        centerX    = center.x;
+        centerY    = center.y;
+        List<Point> neighbors = graph.getNeighbors();
+        lonely = neighbors == null;
+        size   = lonely ? 0 : neighbors.size();
+        if (size > xs.length) {
+            names = new String[size];
+            xs    = new double[size];
+            ys    = new double[size];
+        }
+        for (int i = 0; i < size; i++) {
+            Point p = neighbors.get(i);
+            names[i] = p.name;
+            xs[i]    = p.x;
+            ys[i]    = p.y;
+        }
+        return this;
+    }
+
+    /**
+     * @return the number of neighbors of this graph
+     */
+    public int size() {
+        return size;
+    }
+
+    public String name(int neighbor) {
+        checkIndex(neighbor);
+        return names[neighbor];
+    }
+
+    public double x(int neighbor) {
+        checkIndex(neighbor);
+        return xs[neighbor];
+    }
+
+    public double y(int neighbor) {
+        checkIndex(neighbor);
+        return ys[neighbor];
+    }
+
+    public double centerX() {
+        return centerX;
+    }
+
+    public double centerY() {
+        return centerY;
+    }
+
+    /**
+     * Rotates every neighbor counterclockwise by the specified degrees about the center.
+     *
+     * @param degrees the specified degrees of counterclockwise rotation
+     * @return this mutable graph
+     */
+    public MutableRadialGraph rotateBy(int degrees) {
+        double radians = Math.toRadians(degrees);
+        double cos     = Math.cos(radians);
+        double sin     = Math.sin(radians);
+        for (int i = 0; i < size; i++) {
+            double x = xs[i] + -centerX;
+            double y = ys[i] + -centerY;
+            xs[i] = (x * cos - y * sin) + centerX;
+            ys[i] = (x * sin + y * cos) + centerY;
+        }
+        return this;
+    }
+
+    /**
+     * Moves the center and every neighbor in the x and y directions by the specified amounts.
+     *
+     * @return this mutable graph
+     */
+    public MutableRadialGraph translateBy(double x, double y) {
+        centerX += x;
+        centerY += y;
+        for (int i = 0; i < size; i++) {
+            xs[i] += x;
+            ys[i] += y;
+        }
+        return this;
+    }
+
+    /**
+     * @return a new immutable radial graph with the current center and neighbors of this mutable graph
+     */
+    public RadialGraph freeze() {
+        Point center = new Point(centerName, centerX, centerY);
+        if (lonely)
+            return new RadialGraph(center);
+        Point[] neighbors = new Point[size];
+        for (int i = 0; i < size; i++)
+            neighbors[i] = new Point(names[i], xs[i], ys[i]);
+        return RadialGraph.unchecked(center, neighbors);
+    }
+
+    private void checkIndex(int neighbor) {
+        if (neighbor < 0 || neighbor >= size)
+            throw new IndexOutOfBoundsException("No neighbor " + neighbor + " in a graph of size " + size);
+    }
+}
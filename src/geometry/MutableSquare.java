@@ -0,0 +1,163 @@
+package geometry;
+
+/**
+ * A mutable companion to {@link Square}. The four vertices are kept in reusable arrays, and rotations, translations and
+ * reflections are applied in place without allocating, using the same arithmetic as the corresponding {@link Square}
+ * methods. A <code>MutableSquare</code> can be loaded from a square with {@link #set(Square)} and turned back into an
+ * immutable square with {@link #freeze()}.
+ * <p>
+ * Instances are not thread-safe; each thread should use its own.
+ */
+public class MutableSquare {
+
+    private final String[] names = new String[4];
+    private final double[] xs    = new double[4];
+    private final double[] ys    = new double[4];
+
+    public MutableSquare() {
+    }
+
+    public MutableSquare(Square square) {
+        set(square);
+    }
+
+    /**
+     * Replaces the vertices of this mutable square by those of the given square.
+     *
+     * @param square the square to be copied
+     * @return this mutable square
+     */
+    public MutableSquare set(Square square) {
+        set(0, square.getA());
+        set(1, square.getB());
+        set(2, square.getC());
+        set(3, square.getD());
+        return this;
+    }
+
+    private void set(int i, Point p) {
+        names[i] = p.name;
+        xs[i]    = p.x;
+        ys[i]    = p.y;
+    }
+
+    public String name(int vertex) {
+        return names[vertex];
+    }
+
+    public double x(int vertex) {
+        return xs[vertex];
+    }
+
+    public double y(int vertex) {
+        return ys[vertex];
+    }
+
+    public double centerX() {
+        return (xs[0] + xs[1] + xs[2] + xs[3]) / 4.0;
+    }
+
+    public double centerY() {
+        return (ys[0] + ys[1] + ys[2] + ys[3]) / 4.0;
+    }
+
+    /**
+     * Rotates this square counterclockwise by the specified degrees about its center.
+     *
+     * @param degrees the specified degrees of counterclockwise rotation
+     * @return this mutable square
+     */
+    public MutableSquare rotateBy(int degrees) {
+        double radians = Math.toRadians(degrees);
+        double cos     = Math.cos(radians);
+        double sin     = Math.sin(radians);
+        double cx      = centerX();
+        double cy      = centerY();
+        for (int i = 0; i < 4; i++) {
+            double x = xs[i] + -cx;
+            double y = ys[i] + -cy;
+            xs[i] = (x * cos - y * sin) + cx;
+            ys[i] = (x * sin + y * cos) + cy;
+        }
+        return this;
+    }
+
+    /**
+     * Moves every vertex in the x and y directions by the specified amounts.
+     *
+     * @return this mutable square
+     */
+    public MutableSquare translateBy(double x, double y) {
+        for (int i = 0; i < 4; i++) {
+            xs[i] += x;
+            ys[i] += y;
+        }
+        return this;
+    }
+
+    /**
+     * @return this mutable square, with the same changes as {@link Square#verticalReflection()}
+     */
+    public MutableSquare verticalReflection() {
+        swap(0, 3);
+        swap(1, 2);
+        return this;
+    }
+
+    /**
+     * @return this mutable square, with the same changes as {@link Square#horizontalReflection()}
+     */
+    public MutableSquare horizontalReflection() {
+        swap(0, 1);
+        swap(2, 3);
+        return this;
+    }
+
+    /**
+     * @return this mutable square, with the same changes as {@link Square#diagonalReflection()}
+     */
+    public MutableSquare diagonalReflection() {
+        swap(0, 2);
+        return this;
+    }
+
+    /**
+     * @return this mutable square, with the same changes as {@link Square#counterDiagonalReflection()}
+     */
+    public MutableSquare counterDiagonalReflection() {
+        swap(1, 3);
+        return this;
+    }
+
+    /* reflections keep every vertex name in place and only exchange the coordinates */
+    private void swap(int i, int j) {
+        double x = xs[i];
+        double y = ys[i];
+        xs[i] = xs[j];
+        ys[i] = ys[j];
+        xs[j] = x;
+        ys[j] = y;
+    }
+
+    /* moves the coordinates of vertex permutation[i] to vertex i, keeping the names in place */
+    void permute(int[] permutation) {
+        double x0 = xs[permutation[0]], x1 = xs[permutation[1]], x2 = xs[permutation[2]], x3 = xs[permutation[3]];
+        double y0 = ys[permutation[0]], y1 = ys[permutation[1]], y2 = ys[permutation[2]], y3 = ys[permutation[3]];
+        xs[0] = x0;
+        xs[1] = x1;
+        xs[2] = x2;
+        xs[3] = x3;
+        ys[0] = y0;
+        ys[1] = y1;
+        ys[2] = y2;
+        ys[3] = y3;
+    }
+
+    /**
+     * @return a new immutable square with the current vertices of this mutable square
+     */
+    public Square freeze() {
+        return new Square(new Point(names[0], xs[0], ys[0]), new Point(names[1], xs[1], ys[1]),
+                          new Point(names[2], xs[2], ys[2]), new Point(names[3], xs[3], ys[3]));
+    }
+}
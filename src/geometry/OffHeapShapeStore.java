@@ -0,0 +1,480 @@
+package geometry;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * A store of squares and radial graphs whose coordinates live outside the Java heap. Every vertex is kept as two
+ * doubles and an <code>int</code> name id in a sequence of direct {@link ByteBuffer} pages, and every shape is a fixed
+ * size record (kind, vertex count, index of its first vertex) in a second sequence of pages. Only the dictionary of
+ * distinct point names is kept on the heap, so the heap footprint stays small no matter how many vertices are stored.
+ * <p>
+ * Shapes are addressed by the <code>int</code> index returned when they are added. They can be read back either as
+ * regular {@link Square} and {@link RadialGraph} instances, or through a reusable {@link View} that reads the stored
+ * values without allocating anything. Transforms and symmetry checks run directly against the stored values and follow
+ * the same arithmetic as {@link Square#rotateBy(int)}, {@link RadialGraph#rotateBy(int)},
+ * {@link SquareSymmetries#areSymmetric(Square, Square)} and
+ * {@link RadialGraphSymmetries#areSymmetric(RadialGraph, RadialGraph)}.
+ * <p>
+ * Adding shapes is not thread-safe. Reads, and transforms of distinct shapes, may run concurrently.
+ */
+public class OffHeapShapeStore {
+
+    private static final int SQUARE       = 0;
+    private static final int RADIAL_GRAPH = 1;
+
+    // vertex record: x (double), y (double), name id (int)
+    private static final int VERTEX_BYTES = 20;
+    // shape record: kind (int), vertex count (int), first vertex (long)
+    private static final int SHAPE_BYTES  = 16;
+
+    private static final int PAGE_SHIFT = 16;
+    private static final int PAGE_SIZE  = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK  = PAGE_SIZE - 1;
+
+    private static final int[][] SQUARE_SYMMETRY_PERMUTATIONS = {
+            {3, 2, 1, 0}, // vertical reflection
+            {1, 0, 3, 2}, // horizontal reflection
+            {2, 1, 0, 3}, // diagonal reflection
+            {0, 3, 2, 1}  // counter-diagonal reflection
+    };
+
+    private final List<ByteBuffer>     vertexPages = new ArrayList<>();
+    private final List<ByteBuffer>     shapePages  = new ArrayList<>();
+    private final List<String>         names       = new ArrayList<>();
+    private final Map<String, Integer> nameIds     = new HashMap<>();
+
+    private long vertexCount;
+    private int  shapeCount;
+
+    /**
+     * @return the number of shapes in this store
+     */
+    public int size() {
+        return shapeCount;
+    }
+
+    /**
+     * @return the total number of vertices (including the centers of radial graphs) in this store
+     */
+    public long vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Copies the given square into this store.
+     *
+     * @param square the square to be stored
+     * @return the index of the stored square
+     * @throws IllegalArgumentException if the square is not valid (i.e., it has no vertices)
+     */
+    public int add(Square square) {
+        if (square.getA() == null)
+            throw new IllegalArgumentException("Only valid squares can be stored.");
+        long first = vertexCount;
+        appendVertex(square.getA());
+        appendVertex(square.getB());
+        appendVertex(square.getC());
+        appendVertex(square.getD());
+        return appendShape(SQUARE, 4, first);
+    }
+
+    /**
+     * Copies the given radial graph into this store. The center is stored as the first vertex of the graph.
+     *
+     * @param graph the radial graph to be stored
+     * @return the index of the stored radial graph
+     * @throws IllegalArgumentException if the graph is not valid (i.e., it has no center)
+     */
+    public int add(RadialGraph graph) {
+        if (graph.getCenter() == null)
+            throw new IllegalArgumentException("Only valid radial graphs can be stored.");
+        long first = vertexCount;
+        appendVertex(graph.getCenter());
+        List<Point> neighbors = graph.getNeighbors();
+        if (neighbors != null) {
+            for (Point p : neighbors)
+                appendVertex(p);
+        }
+        return appendShape(RADIAL_GRAPH, neighbors == null ? 1 : neighbors.size() + 1, first);
+    }
+
+    /**
+     * @param index the index of a stored square
+     * @return a new (on-heap) square with the stored coordinates
+     */
+    public Square square(int index) {
+        checkKind(index, SQUARE);
+        long first = firstVertex(index);
+        return new Square(point(first), point(first + 1), point(first + 2), point(first + 3));
+    }
+
+    /**
+     * @param index the index of a stored radial graph
+     * @return a new (on-heap) radial graph with the stored coordinates
+     */
+    public RadialGraph radialGraph(int index) {
+        checkKind(index, RADIAL_GRAPH);
+        long first = firstVertex(index);
+        int  count = count(index);
+        if (count == 1)
+            return new RadialGraph(point(first));
+        Point[] neighbors = new Point[count - 1];
+        for (int i = 1; i < count; i++)
+            neighbors[i - 1] = point(first + i);
+        // the stored spokes were of equal length when the graph was added, and rotations and translations keep them so
+        // only up to rounding, which the public constructor would reject
+        return RadialGraph.unchecked(point(first), neighbors);
+    }
+
+    /**
+     * @return a new flyweight view over this store, initially positioned at the first shape
+     */
+    public View view() {
+        return new View();
+    }
+
+    /**
+     * Moves every vertex of the specified shape by the given amounts.
+     *
+     * @param index the index of the shape
+     * @param x     the amount by which all vertices are moved along the x axis
+     * @param y     the amount by which all vertices are moved along the y axis
+     */
+    public void translate(int index, double x, double y) {
+        long first = firstVertex(index);
+        long last  = first + count(index);
+        for (long v = first; v < last; v++) {
+            setX(v, x(v) + x);
+            setY(v, y(v) + y);
+        }
+    }
+
+    /**
+     * Rotates the specified shape counterclockwise by the given degrees about its center.
+     *
+     * @param index   the index of the shape
+     * @param degrees the degrees of counterclockwise rotation
+     */
+    public void rotate(int index, int degrees) {
+        double radians = Math.toRadians(degrees);
+        double cos     = Math.cos(radians);
+        double sin     = Math.sin(radians);
+        long   first   = firstVertex(index);
+        int    count   = count(index);
+        double cx      = centerX(index);
+        double cy      = centerY(index);
+        // the center of a radial graph is its first vertex, and it does not move
+        long start = kind(index) == RADIAL_GRAPH ? first + 1 : first;
+        for (long v = start; v < first + count; v++) {
+            double x = x(v) + -cx;
+            double y = y(v) + -cy;
+            setX(v, (x * cos - y * sin) + cx);
+            setY(v, (x * sin + y * cos) + cy);
+        }
+    }
+
+    /**
+     * Moves every stored shape by the given amounts. The shapes are processed in parallel.
+     */
+    public void translateAll(double x, double y) {
+        IntStream.range(0, shapeCount).parallel().forEach(i -> translate(i, x, y));
+    }
+
+    /**
+     * Rotates every stored shape counterclockwise by the given degrees about its own center. The shapes are processed
+     * in parallel.
+     */
+    public void rotateAll(int degrees) {
+        IntStream.range(0, shapeCount).parallel().forEach(i -> rotate(i, degrees));
+    }
+
+    /**
+     * Determines whether two stored shapes are symmetric, with the same semantics as the {@link Symmetries}
+     * implementation for their kind. Shapes of different kinds are never symmetric.
+     *
+     * @param i the index of the first shape
+     * @param j the index of the second shape
+     * @return <code>true</code> if the two shapes are symmetric, and <code>false</code> otherwise
+     */
+    public boolean areSymmetric(int i, int j) {
+        if (kind(i) != kind(j))
+            return false;
+        return kind(i) == SQUARE ? areSymmetricSquares(i, j) : areSymmetricGraphs(i, j);
+    }
+
+    private boolean areSymmetricSquares(int i, int j) {
+        long   s1 = firstVertex(i);
+        long   s2 = firstVertex(j);
+        double cx = centerX(i);
+        double cy = centerY(i);
+        // identity and the three rotations
+        for (int degrees = 0; degrees < 360; degrees += 90) {
+            double radians = Math.toRadians(degrees);
+            double cos     = Math.cos(radians);
+            double sin     = Math.sin(radians);
+            boolean equal = true;
+            for (int k = 0; k < 4 && equal; k++) {
+                double x = x(s1 + k);
+                double y = y(s1 + k);
+                if (degrees != 0) {
+                    double tx = x + -cx;
+                    double ty = y + -cy;
+                    x = (tx * cos - ty * sin) + cx;
+                    y = (tx * sin + ty * cos) + cy;
+                }
+                equal = x == x(s2 + k) && y == y(s2 + k);
+            }
+            if (equal)
+                return true;
+        }
+        // the four reflections only permute the coordinates among the vertices
+        for (int[] permutation : SQUARE_SYMMETRY_PERMUTATIONS) {
+            boolean equal = true;
+            for (int k = 0; k < 4 && equal; k++)
+                equal = x(s1 + permutation[k]) == x(s2 + k) && y(s1 + permutation[k]) == y(s2 + k);
+            if (equal)
+                return true;
+        }
+        return false;
+    }
+
+    private boolean areSymmetricGraphs(int i, int j) {
+        long   s1 = firstVertex(i);
+        long   s2 = firstVertex(j);
+        int    n  = count(i);
+        double cx = x(s1);
+        double cy = y(s1);
+        if (cx != x(s2) || cy != y(s2) || n != count(j))
+            return false;
+        int spokes   = n == 1 ? 1 : n - 1;
+        int interval = 360 / spokes;
+        for (int step = 0; step < spokes; step++) {
+            double radians = Math.toRadians(step * interval);
+            double cos     = Math.cos(radians);
+            double sin     = Math.sin(radians);
+            boolean equal = true;
+            for (int k = 1; k < n && equal; k++) {
+                double x = x(s1 + k);
+                double y = y(s1 + k);
+                if (step != 0) {
+                    double tx = x + -cx;
+                    double ty = y + -cy;
+                    x = (tx * cos - ty * sin) + cx;
+                    y = (tx * sin + ty * cos) + cy;
+                }
+                equal = round(x) == round(x(s2 + k)) && round(y) == round(y(s2 + k));
+            }
+            if (equal)
+                return true;
+        }
+        return false;
+    }
+
+    private static double round(double value) {
+        return (double) Math.round(value * 10000) / 10000;
+    }
+
+    private double centerX(int index) {
+        long first = firstVertex(index);
+        if (kind(index) == RADIAL_GRAPH)
+            return x(first);
+        return (x(first) + x(first + 1) + x(first + 2) + x(first + 3)) / 4.0;
+    }
+
+    private double centerY(int index) {
+        long first = firstVertex(index);
+        if (kind(index) == RADIAL_GRAPH)
+            return y(first);
+        return (y(first) + y(first + 1) + y(first + 2) + y(first + 3)) / 4.0;
+    }
+
+    private void checkKind(int index, int kind) {
+        if (kind(index) != kind)
+            throw new IllegalArgumentException("The shape at index " + index + " is not a " +
+                                               (kind == SQUARE ? "square" : "radial graph"));
+    }
+
+    /* ---- shape records ---- */
+
+    private int appendShape(int kind, int count, long firstVertex) {
+        int index = shapeCount;
+        if ((index & PAGE_MASK) == 0)
+            shapePages.add(allocate(SHAPE_BYTES));
+        ByteBuffer page   = shapePages.get(index >>> PAGE_SHIFT);
+        int        offset = (index & PAGE_MASK) * SHAPE_BYTES;
+        page.putInt(offset, kind);
+        page.putInt(offset + 4, count);
+        page.putLong(offset + 8, firstVertex);
+        shapeCount++;
+        return index;
+    }
+
+    private int kind(int index) {
+        return shapePage(index).getInt((index & PAGE_MASK) * SHAPE_BYTES);
+    }
+
+    private int count(int index) {
+        return shapePage(index).getInt((index & PAGE_MASK) * SHAPE_BYTES + 4);
+    }
+
+    private long firstVertex(int index) {
+        return shapePage(index).getLong((index & PAGE_MASK) * SHAPE_BYTES + 8);
+    }
+
+    private ByteBuffer shapePage(int index) {
+        if (index < 0 || index >= shapeCount)
+            throw new IndexOutOfBoundsException("No shape at index " + index);
+        return shapePages.get(index >>> PAGE_SHIFT);
+    }
+
+    /* ---- vertex records ---- */
+
+    private void appendVertex(Point p) {
+        long v = vertexCount;
+        if ((v & PAGE_MASK) == 0)
+            vertexPages.add(allocate(VERTEX_BYTES));
+        ByteBuffer page   = vertexPage(v);
+        int        offset = vertexOffset(v);
+        page.putDouble(offset, p.x);
+        page.putDouble(offset + 8, p.y);
+        page.putInt(offset + 16, nameId(p.name));
+        vertexCount++;
+    }
+
+    private Point point(long v) {
+        return new Point(name(v), x(v), y(v));
+    }
+
+    private double x(long v) {
+        return vertexPage(v).getDouble(vertexOffset(v));
+    }
+
+    private double y(long v) {
+        return vertexPage(v).getDouble(vertexOffset(v) + 8);
+    }
+
+    private String name(long v) {
+        return names.get(vertexPage(v).getInt(vertexOffset(v) + 16));
+    }
+
+    private void setX(long v, double x) {
+        vertexPage(v).putDouble(vertexOffset(v), x);
+    }
+
+    private void setY(long v, double y) {
+        vertexPage(v).putDouble(vertexOffset(v) + 8, y);
+    }
+
+    private ByteBuffer vertexPage(long v) {
+        return vertexPages.get((int) (v >>> PAGE_SHIFT));
+    }
+
+    private static int vertexOffset(long v) {
+        return (int) (v & PAGE_MASK) * VERTEX_BYTES;
+    }
+
+    private int nameId(String name) {
+        Integer id = nameIds.get(name);
+        if (id == null) {
+            id = names.size();
+            names.add(name);
+            nameIds.put(name, id);
+        }
+        return id;
+    }
+
+    private static ByteBuffer allocate(int recordBytes) {
+        return ByteBuffer.allocateDirect(PAGE_SIZE * recordBytes).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * A reusable, allocation-free view of one stored shape. A view is positioned with {@link #moveTo(int)} and reads
+     * the stored values on every call, so it always reflects the current state of the store. Views are not
+     * thread-safe; each thread should use its own.
+     */
+    public class View {
+
+        private int  index;
+        private long first;
+        private int  count;
+
+        private View() {
+            if (shapeCount > 0)
+                moveTo(0);
+        }
+
+        /**
+         * Positions this view at the specified shape.
+         *
+         * @param index the index of the shape
+         * @return this view
+         */
+        public View moveTo(int index) {
+            this.first = firstVertex(index);
+            this.count = count(index);
+            this.index = index;
+            return this;
+        }
+
+        /**
+         * @return the index of the shape this view is positioned at
+         */
+        public int index() {
+            return index;
+        }
+
+        public boolean isSquare() {
+            return kind(index) == SQUARE;
+        }
+
+        public boolean isRadialGraph() {
+            return kind(index) == RADIAL_GRAPH;
+        }
+
+        /**
+         * @return the number of vertices of the shape, which for a radial graph includes its center
+         */
+        public int vertexCount() {
+            return count;
+        }
+
+        public double x(int vertex) {
+            return OffHeapShapeStore.this.x(vertex(vertex));
+        }
+
+        public double y(int vertex) {
+            return OffHeapShapeStore.this.y(vertex(vertex));
+        }
+
+        public String name(int vertex) {
+            return OffHeapShapeStore.this.name(vertex(vertex));
+        }
+
+        public double centerX() {
+            return OffHeapShapeStore.this.centerX(index);
+        }
+
+        public double centerY() {
+            return OffHeapShapeStore.this.centerY(index);
+        }
+
+        /**
+         * @return a new (on-heap) copy of the shape this view is positioned at
+         */
+        public Shape toShape() {
+            return isSquare() ? square(index) : radialGraph(index);
+        }
+
+        private long vertex(int vertex) {
+            if (vertex < 0 || vertex >= count)
+                throw new IndexOutOfBoundsException("No vertex " + vertex + " in the shape at index " + index);
+            return first + vertex;
+        }
+    }
+}
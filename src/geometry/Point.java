@@ -34,4 +34,11 @@ public class Point {
         if (Double.compare(point.y, y) != 0) return false;
         return name.equals(point.name);
     }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(x);
+        result = 31 * result + Double.hashCode(y);
+        return 31 * result + name.hashCode();
+    }
 }
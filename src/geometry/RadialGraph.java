@@ -1,9 +1,19 @@
 package geometry;
 
 import java.util.*;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/* radial graphs are immutable, so they can be shared between threads without copying or locking: all the fields are
+ * final, the spokes are kept in a private array that is never written after construction, and the neighbors are only
+ * exposed as an unmodifiable view of that array */
 public class RadialGraph extends Shape {
-    private Point center;
+    /* graphs with at least this many spokes are validated, transformed and sorted in parallel */
+    static final int PARALLEL_THRESHOLD = 1 << 15;
+    /* the number of spokes handled by a single fork-join task */
+    private static final int CHUNK_SIZE = 1 << 12;
+
+    private final Point center;
 
     public Point getCenter() {
         return center;
@@ -13,31 +23,85 @@ public class RadialGraph extends Shape {
         return neighbors;
     }
 
-    private List<Point> neighbors;
+    private final Point[] spokes;
+    private final List<Point> neighbors;
 
-    /* constructor with neighbors, check if the edges are the same length away from center */
+    /* constructor with neighbors, check if the edges are the same length away from center (see sameLength); the
+     * neighbors are copied, so later changes to the list do not affect the graph */
     public RadialGraph(Point center, List<Point> neighbors) {
+        Point[] spokes = neighbors.toArray(new Point[0]);
+        boolean valid;
         try {
             //got first distance, every other distance must match this
-            double dist = Math.sqrt(Math.pow(neighbors.get(0).x - center.x, 2) + Math.pow(neighbors.get(0).y - center.y, 2));
-            //getting distance of everyone
-            for (Point p : neighbors) {
-                double currentDist = Math.sqrt(Math.pow(p.x - center.x, 2) + Math.pow(p.y - center.y, 2));
-                //if it doesn't match error
-                if (dist != currentDist) {
+            double dist = squaredDist(spokes[0], center);
+            double length = length(spokes[0], center);
+            if (spokes.length >= PARALLEL_THRESHOLD) {
+                AtomicBoolean mismatch = new AtomicBoolean();
+                new SpokeTask(0, spokes.length, (from, to) -> {
+                    for (int i = from; i < to && !mismatch.get(); i++) {
+                        if (!sameLength(dist, length, spokes[i], center)) {
+                            mismatch.set(true);
+                        }
+                    }
+                }).invoke();
+                if (mismatch.get()) {
                     throw new IllegalArgumentException("Edges are not the same length for creating a RadialGraph");
                 }
+            } else {
+                //getting distance of everyone
+                for (Point p : spokes) {
+                    //if it doesn't match error
+                    if (!sameLength(dist, length, p, center)) {
+                        throw new IllegalArgumentException("Edges are not the same length for creating a RadialGraph");
+                    }
+                }
             }
-            this.center = center;
-            this.neighbors = neighbors;
+            valid = true;
         } catch (IllegalArgumentException ignored){
-
+            valid = false;
         }
+        //an invalid graph has neither a center nor neighbors
+        this.center = valid ? center : null;
+        this.spokes = valid ? spokes : null;
+        this.neighbors = valid ? Collections.unmodifiableList(Arrays.asList(spokes)) : null;
+    }
+
+    private static double squaredDist(Point p, Point center) {
+        double dx = p.x - center.x;
+        double dy = p.y - center.y;
+        return dx * dx + dy * dy;
+    }
+
+    /* whether p is as far from the center as the first spoke, whose squared distance and length are given: equal
+     * squared distances settle it without a square root, but Math.sqrt maps neighbouring squared distances to the same
+     * length, so if they differ the lengths themselves are compared, which accepts exactly the graphs that comparing
+     * lengths always did */
+    private static boolean sameLength(double squaredDist, double length, Point p, Point center) {
+        return squaredDist == squaredDist(p, center) || length == length(p, center);
+    }
+
+    private static double length(Point p, Point center) {
+        return Math.sqrt(Math.pow(p.x - center.x, 2) + Math.pow(p.y - center.y, 2));
     }
 
     /* lonely RadialGraph, he is by himself */
     public RadialGraph(Point center) {
         this.center = center;
+        this.spokes = null;
+        this.neighbors = null;
+    }
+
+    private RadialGraph(Point center, Point[] spokes) {
+        this.center = center;
+        this.spokes = spokes;
+        this.neighbors = Collections.unmodifiableList(Arrays.asList(spokes));
+    }
+
+    /* graph made from points already known to be the same distance from the center (e.g., the result of a transform),
+     * so the edge lengths are not checked again; the array becomes the backing array of the graph, so the caller must
+     * not change it afterwards */
+    static RadialGraph unchecked(Point center, Point[] spokes) {
+        return new RadialGraph(center, spokes);
     }
 
     /* create the new rotatedGraph to be return,same center, use formula to rotate each point keep same name, add to the new Graph */
@@ -45,17 +109,36 @@ public class RadialGraph extends Shape {
     public RadialGraph rotateBy(int degrees) {
         //degrees into rads
         double radians = Math.toRadians(degrees);
+        if (isLarge()) {
+            //same arithmetic as below, in a single parallel pass over the spokes
+            double cos = Math.cos(radians);
+            double sin = Math.sin(radians);
+            Point[] rotated = new Point[spokes.length];
+            new SpokeTask(0, rotated.length, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    Point p = spokes[i];
+                    double x = p.x + -(center.x);
+                    double y = p.y + -(center.y);
+                    rotated[i] = new Point(p.name, (x * cos - y * sin) + center.x, (x * sin + y * cos) + center.y);
+                }
+            }).invoke();
+            //the center is moved to (0,0) and back, as below
+            Point rotatedCenter = new Point(center.name, (center.x + -(center.x)) + center.x,
+                                            (center.y + -(center.y)) + center.y);
+            return unchecked(rotatedCenter, rotated);
+        }
         //translate to (0,0) if not already (0,0)
         //new Radial graph to be made
-        ArrayList<Point> rotatedPoints = new ArrayList<>();
-        RadialGraph rotatedGraph = translateBy(-(center.x), -(center.y));
+        RadialGraph translatedGraph = translateBy(-(center.x), -(center.y));
+        Point[] rotatedPoints = new Point[translatedGraph.spokes.length];
         //each point to be rotated and added to new graph
-        for (Point p : rotatedGraph.neighbors) {
+        for (int i = 0; i < rotatedPoints.length; i++) {
+            Point p = translatedGraph.spokes[i];
             double rotatedX = p.x * Math.cos(radians) - p.y * Math.sin(radians);
             double rotatedY = p.x * Math.sin(radians) + p.y * Math.cos(radians);
-            rotatedPoints.add(new Point(p.name, rotatedX, rotatedY));
+            rotatedPoints[i] = new Point(p.name, rotatedX, rotatedY);
         }
-        rotatedGraph.neighbors = rotatedPoints;
+        RadialGraph rotatedGraph = unchecked(translatedGraph.center, rotatedPoints);
         //translate back to origin
         rotatedGraph = rotatedGraph.translateBy((center.x), (center.y));
         //update the neighbors
@@ -71,21 +154,38 @@ public class RadialGraph extends Shape {
         double yTranslatedCenter = center.y + yAmount;
         Point translatedCenter = new Point(center.name, xTranslatedCenter,yTranslatedCenter);
         //creating translatedGraph with the new center
-        RadialGraph translatedGraph = new RadialGraph(translatedCenter);
-        translatedGraph.neighbors = new ArrayList<>();
-        for (Point p : neighbors) {
+        Point[] translated = new Point[spokes.length];
+        if (isLarge()) {
+            new SpokeTask(0, translated.length, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    Point p = spokes[i];
+                    translated[i] = new Point(p.name, p.x + xAmount, p.y + yAmount);
+                }
+            }).invoke();
+            return unchecked(translatedCenter, translated);
+        }
+        for (int i = 0; i < translated.length; i++) {
+            Point p = spokes[i];
             double xTran = p.x + xAmount;
             double yTran = p.y + yAmount;
-            translatedGraph.neighbors.add(new Point(p.name, xTran, yTran));
+            translated[i] = new Point(p.name, xTran, yTran);
         }
-        return translatedGraph;
+        return unchecked(translatedCenter, translated);
+    }
+
+    private boolean isLarge() {
+        return spokes != null && spokes.length >= PARALLEL_THRESHOLD;
     }
 
     private RadialGraph sortAngle() {
+        if (isLarge()) {
+            return sortAngleInParallel();
+        }
         //if it is not at (0,0) already we bring it there
-        RadialGraph sortedGraph = translateBy(-(center.x), -(center.y));
+        RadialGraph translatedGraph = translateBy(-(center.x), -(center.y));
+        Point[] sortedPoints = translatedGraph.spokes.clone();
         //sorting counterclockwise in respect to x-axis
-        sortedGraph.neighbors.sort((p1, p2) -> {
+        Arrays.sort(sortedPoints, (p1, p2) -> {
             double p1AngleRadian = Math.atan2(p1.y, p1.x);
             double p2AngleRadian = Math.atan2(p2.y, p2.x);
             p1AngleRadian = round(p1AngleRadian, 3);
@@ -110,8 +210,79 @@ public class RadialGraph extends Shape {
             }
         });
         //after comparing translate it back to original
-        sortedGraph = sortedGraph.translateBy(center.x, center.y);
-        return sortedGraph;
+        return unchecked(translatedGraph.center, sortedPoints).translateBy(center.x, center.y);
+    }
+
+    /* same order as sortAngle, but the sort keys are computed once per spoke in parallel, and the spokes are sorted
+     * with a (stable) parallel merge sort */
+    private RadialGraph sortAngleInParallel() {
+        SortKey[] keys = new SortKey[spokes.length];
+        new SpokeTask(0, keys.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                Point p = spokes[i];
+                Point translated = new Point(p.name, p.x + -(center.x), p.y + -(center.y));
+                double angle = round(Math.atan2(translated.y, translated.x), 3);
+                if (angle < 0) {
+                    angle += 2 * Math.PI;
+                }
+                keys[i] = new SortKey(translated, angle, dist(translated, center()));
+            }
+        }).invoke();
+        Arrays.parallelSort(keys, (k1, k2) -> {
+            int angleComparison = Double.compare(k1.angle, k2.angle);
+            return angleComparison == 0 ? Double.compare(k1.distance, k2.distance) : angleComparison;
+        });
+        //translate back to the original center
+        Point[] sorted = new Point[keys.length];
+        new SpokeTask(0, sorted.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                Point p = keys[i].point;
+                sorted[i] = new Point(p.name, p.x + center.x, p.y + center.y);
+            }
+        }).invoke();
+        return unchecked(center, sorted);
+    }
+
+    private static final class SortKey {
+        final Point  point;
+        final double angle;
+        final double distance;
+
+        SortKey(Point point, double angle, double distance) {
+            this.point    = point;
+            this.angle    = angle;
+            this.distance = distance;
+        }
+    }
+
+    /* splits [from, to) of the spoke array in halves until the chunks are small enough, and runs the body on each
+     * chunk in the common fork-join pool */
+    private static final class SpokeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        interface Body {
+            void run(int from, int to);
+        }
+
+        private final int  from;
+        private final int  to;
+        private final Body body;
+
+        SpokeTask(int from, int to, Body body) {
+            this.from = from;
+            this.to   = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                body.run(from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SpokeTask(from, middle, body), new SpokeTask(middle, to, body));
+            }
+        }
     }
 
     private double dist(Point a, Point b) {
@@ -151,6 +322,19 @@ public class RadialGraph extends Shape {
         return true;
     }
 
+    /* consistent with equals, which compares the center exactly and the neighbors rounded to 4 decimal places */
+    @Override
+    public int hashCode() {
+        int result = 31 * Double.hashCode(center.x + 0.0) + Double.hashCode(center.y + 0.0);
+        if (neighbors != null) {
+            for (Point p : neighbors) {
+                result = 31 * result + Long.hashCode(Math.round(p.x * 10000));
+                result = 31 * result + Long.hashCode(Math.round(p.y * 10000));
+            }
+        }
+        return result;
+    }
+
     @Override
     public String toString() {
         //checking if it is only a center then only return the center if not then do the rest
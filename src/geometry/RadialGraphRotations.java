@@ -0,0 +1,130 @@
+package geometry;
+
+import core.FiniteGroup;
+import core.Group;
+import core.GroupAction;
+import core.PackableGroup;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * The rotations of a radial graph with <code>n</code> spokes, as the cyclic group of order <code>n</code> acting on
+ * radial graphs. The element <code>k</code> (for <code>0 &le; k &lt; n</code>) rotates a graph counterclockwise by
+ * <code>k * (360 / n)</code> degrees about its center, which are exactly the rotations produced by
+ * {@link RadialGraphSymmetries#symmetriesOf(RadialGraph)}. The rotations only form a group action when <code>n</code>
+ * divides 360.
+ * <p>
+ * The orbit of a graph with <code>n</code> spokes under the generator <code>1</code> is therefore the collection of
+ * its symmetries, e.g., <code>rotations.orbit(graph, Collections.singleton(1))</code>.
+ */
+public class RadialGraphRotations implements PackableGroup<Integer>, FiniteGroup<Integer>,
+                                             GroupAction<Integer, RadialGraph> {
+
+    private final int spokes;
+
+    public RadialGraphRotations(int spokes) {
+        if (spokes < 1)
+            throw new IllegalArgumentException("A radial graph has at least one spoke.");
+        this.spokes = spokes;
+    }
+
+    /**
+     * @param graph a radial graph
+     * @return the rotations of the given graph, with one spoke for a graph that only has a center
+     */
+    public static RadialGraphRotations of(RadialGraph graph) {
+        return new RadialGraphRotations(graph.getNeighbors() == null ? 1 : graph.getNeighbors().size());
+    }
+
+    public int spokes() {
+        return spokes;
+    }
+
+    @Override
+    public Integer binaryOperation(Integer one, Integer other) {
+        return (one + other) % spokes;
+    }
+
+    @Override
+    public Integer identity() {
+        return 0;
+    }
+
+    @Override
+    public Integer inverseOf(Integer k) {
+        return (spokes - k) % spokes;
+    }
+
+    @Override
+    public Integer exponent(Integer k, int n) {
+        if (n < 0)
+            throw new IllegalArgumentException("The exponent must be a non-negative integer value.");
+        return (int) ((long) k * n % spokes);
+    }
+
+    /* the elements 0, 1, ..., spokes - 1, without storing them */
+    @Override
+    public List<Integer> elements() {
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                if (index < 0 || index >= spokes)
+                    throw new IndexOutOfBoundsException("No rotation " + index + " among " + spokes);
+                return index;
+            }
+
+            @Override
+            public int size() {
+                return spokes;
+            }
+        };
+    }
+
+    @Override
+    public long order() {
+        return spokes;
+    }
+
+    @Override
+    public int bitWidth() {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(spokes - 1));
+    }
+
+    @Override
+    public long pack(Integer k) {
+        return k;
+    }
+
+    @Override
+    public Integer unpack(long bits) {
+        return (int) bits;
+    }
+
+    @Override
+    public long packedOperation(long one, long other) {
+        return (one + other) % spokes;
+    }
+
+    @Override
+    public long packedInverse(long k) {
+        return (spokes - k) % spokes;
+    }
+
+    @Override
+    public long packedExponent(long k, long n) {
+        if (n < 0)
+            throw new IllegalArgumentException("The exponent must be a non-negative integer value.");
+        return k * (n % spokes) % spokes;
+    }
+
+    @Override
+    public Group<Integer> group() {
+        return this;
+    }
+
+    @Override
+    public RadialGraph act(Integer k, RadialGraph graph) {
+        return k == 0 ? graph : graph.rotateBy(k * (360 / spokes));
+    }
+}
@@ -2,13 +2,15 @@ package geometry;
 
 import java.util.*;
 
+/* squares are immutable, so they can be shared between threads without copying or locking: all the fields are final,
+ * and the points are only exposed as an unmodifiable view */
 public class Square extends Shape {
 
-    private List<Point> points;
-    private Point a;
-    private Point b;
-    private Point c;
-    private Point d;
+    private final List<Point> points;
+    private final Point a;
+    private final Point b;
+    private final Point c;
+    private final Point d;
 
     public List<Point> getPoints() {
         return points;
@@ -31,24 +33,34 @@ public class Square extends Shape {
     }
 
     public Square(Point a, Point b, Point c, Point d) {
+        this(validOrNull(a, b, c, d));
+    }
+
+    /* square made from points already known to form a square (e.g., the result of a transform), so they are not
+     * checked again; an invalid square has no points */
+    private Square(Point[] vertices) {
+        //creating a read-only list for all points in order
+        this.points = vertices == null ? null : Collections.unmodifiableList(Arrays.asList(vertices));
+        this.a = vertices == null ? null : vertices[0];
+        this.b = vertices == null ? null : vertices[1];
+        this.c = vertices == null ? null : vertices[2];
+        this.d = vertices == null ? null : vertices[3];
+    }
+
+    private static Point[] validOrNull(Point a, Point b, Point c, Point d) {
         try {
             //if it not a valid square throw error
-           if (!isValidSquare(a, b, c, d)) {
-               throw new IllegalArgumentException("The square is not valid");
-           }
-           //creating a list for all points in order
-            this.points = new ArrayList<>(Arrays.asList(a, b, c, d));
-            this.a = a;
-            this.b = b;
-            this.c = c;
-            this.d = d;
-        } catch (IllegalArgumentException ignored){
-
+            if (!isValidSquare(a, b, c, d)) {
+                throw new IllegalArgumentException("The square is not valid");
+            }
+            return new Point[]{a, b, c, d};
+        } catch (IllegalArgumentException ignored) {
+            return null;
         }
     }
 
     //method to check if the points form a square
-    private boolean isValidSquare(Point a, Point b, Point c, Point d) {
+    private static boolean isValidSquare(Point a, Point b, Point c, Point d) {
         //creating an array of all distances, a->b,b->c,c->d. check if all equal
         List<Double> sideDistance = new ArrayList<>(4);
         double initialSideDist = round(dist(a, b), 4);
@@ -71,7 +83,7 @@ public class Square extends Shape {
         double d3 = round(dist(b, d), 4); // from b to d
         return d2 == d3;
     }
-    private double dist(Point a, Point b) {
+    private static double dist(Point a, Point b) {
         return Math.sqrt(Math.pow(a.x - b.x, 2) + Math.pow(a.y - b.y, 2));
     }
 
@@ -93,19 +105,16 @@ public class Square extends Shape {
         double radians = Math.toRadians(degrees);
         //translate to (0,0) if not already (0,0)
         //new Radial graph to be made
-        ArrayList<Point> rotatedPoints = new ArrayList<>();
-        Square rotatedSquare = (Square) translateBy(-(center().x), -(center().y));
+        Point[] rotatedPoints = new Point[4];
+        Square translatedSquare = (Square) translateBy(-(center().x), -(center().y));
         //rotate counterclockwise
-        for(Point p : rotatedSquare.points) {
+        for (int i = 0; i < 4; i++) {
+            Point p = translatedSquare.points.get(i);
             double rotatedX = p.x * Math.cos(radians) - p.y * Math.sin(radians);
             double rotatedY = p.x * Math.sin(radians) + p.y * Math.cos(radians);
-            rotatedPoints.add(new Point(p.name, rotatedX, rotatedY));
+            rotatedPoints[i] = new Point(p.name, rotatedX, rotatedY);
         }
-        rotatedSquare.points = rotatedPoints;
-        rotatedSquare.a = rotatedSquare.points.get(0);
-        rotatedSquare.b = rotatedSquare.points.get(1);
-        rotatedSquare.c = rotatedSquare.points.get(2);
-        rotatedSquare.d = rotatedSquare.points.get(3);
+        Square rotatedSquare = new Square(rotatedPoints);
         //after comparing translate it back to original
         rotatedSquare = (Square) rotatedSquare.translateBy(center().x, center().y);
         return rotatedSquare;
@@ -124,9 +133,10 @@ public class Square extends Shape {
 
     private Square sort() {
         //if it is not at (0,0) already we bring it there
-        Square sortedSquare = (Square) translateBy(-(center().x), -(center().y));
+        Square translatedSquare = (Square) translateBy(-(center().x), -(center().y));
+        Point[] sortedPoints = translatedSquare.points.toArray(new Point[4]);
         //sorting counterclockwise in respect to x-axis
-        sortedSquare.points.sort((p1, p2) -> {
+        Arrays.sort(sortedPoints, (p1, p2) -> {
             double p1AngleRadian = Math.atan2(p1.y, p1.x);
             double p2AngleRadian = Math.atan2(p2.y, p2.x);
             p1AngleRadian = round(p1AngleRadian, 3);
@@ -150,10 +160,7 @@ public class Square extends Shape {
                 return angleComparison;
             }
         });
-        sortedSquare.a = sortedSquare.points.get(0);
-        sortedSquare.b = sortedSquare.points.get(1);
-        sortedSquare.c = sortedSquare.points.get(2);
-        sortedSquare.d = sortedSquare.points.get(3);
+        Square sortedSquare = new Square(sortedPoints);
         //after comparing translate it back to original
         sortedSquare = (Square) sortedSquare.translateBy(center().x, center().y);
         return sortedSquare;
@@ -173,88 +180,51 @@ public class Square extends Shape {
                 (this.c.x == other.c.x) && (this.c.y == other.c.y) && (this.d.x == other.d.x) && (this.d.y == other.d.y);
     }
 
+    /* consistent with equals, which compares the coordinates with == (so -0.0 and 0.0 must hash alike) */
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (Point p : new Point[]{a, b, c, d}) {
+            result = 31 * result + Double.hashCode(p.x + 0.0);
+            result = 31 * result + Double.hashCode(p.y + 0.0);
+        }
+        return result;
+    }
+
     public Square verticalReflection() {
-        Square vertReflectSquare = (Square) translateBy(0, 0);
         // Swap points b and c
         Point newA = new Point(a.name, d.x, d.y);
         Point newC = new Point(c.name, b.x, b.y);
         Point newB = new Point(b.name, c.x, c.y);
         Point newD = new Point(d.name, a.x, a.y);
-        //update the new array
-        ArrayList<Point> vertReflectPoints = new ArrayList<>();
-        vertReflectPoints.add(newA);
-        vertReflectPoints.add(newB);
-        vertReflectPoints.add(newC);
-        vertReflectPoints.add(newD);
-        vertReflectSquare.points = vertReflectPoints;
-        vertReflectSquare.a = vertReflectSquare.points.get(0);
-        vertReflectSquare.b = vertReflectSquare.points.get(1);
-        vertReflectSquare.c = vertReflectSquare.points.get(2);
-        vertReflectSquare.d = vertReflectSquare.points.get(3);
-        return vertReflectSquare;
+        return new Square(new Point[]{newA, newB, newC, newD});
     }
 
     public Square horizontalReflection() {
-        Square horiReflectSquare = (Square) translateBy(0, 0);
         // Swap points b and c
         Point newA = new Point(a.name, b.x, b.y);
         Point newB = new Point(b.name, a.x, a.y);
         Point newC = new Point(c.name, d.x, d.y);
         Point newD = new Point(d.name, c.x, c.y);
-        //update the new array
-        ArrayList<Point> horiReflectPoints = new ArrayList<>();
-        horiReflectPoints.add(newA);
-        horiReflectPoints.add(newB);
-        horiReflectPoints.add(newC);
-        horiReflectPoints.add(newD);
-        horiReflectSquare.points = horiReflectPoints;
-        horiReflectSquare.a = horiReflectSquare.points.get(0);
-        horiReflectSquare.b = horiReflectSquare.points.get(1);
-        horiReflectSquare.c = horiReflectSquare.points.get(2);
-        horiReflectSquare.d = horiReflectSquare.points.get(3);
-        return horiReflectSquare;
+        return new Square(new Point[]{newA, newB, newC, newD});
     }
 
     public Square diagonalReflection() {
-        Square diagReflectSquare = (Square) translateBy(0, 0);
         // Swap points b and c
         Point newA = new Point(a.name, c.x, c.y);
         Point newB = new Point(b.name, b.x, b.y);
         Point newC = new Point(c.name, a.x, a.y);
         Point newD = new Point(d.name, d.x, d.y);
-        //update the new array
-        ArrayList<Point> diagReflectPoints = new ArrayList<>();
-        diagReflectPoints.add(newA);
-        diagReflectPoints.add(newB);
-        diagReflectPoints.add(newC);
-        diagReflectPoints.add(newD);
-        diagReflectSquare.points = diagReflectPoints;
-        diagReflectSquare.a = diagReflectSquare.points.get(0);
-        diagReflectSquare.b = diagReflectSquare.points.get(1);
-        diagReflectSquare.c = diagReflectSquare.points.get(2);
-        diagReflectSquare.d = diagReflectSquare.points.get(3);
-        return diagReflectSquare;
+        return new Square(new Point[]{newA, newB, newC, newD});
     }
 
     public Square counterDiagonalReflection() {
-        Square countDiagReflectSquare = (Square) translateBy(0, 0);
         // Swap points b and c
         Point newA = new Point(a.name, a.x, a.y);
         Point newB = new Point(b.name, d.x, d.y);
         Point newC = new Point(c.name, c.x, c.y);
         Point newD = new Point(d.name, b.x, b.y);
-        //update the new array
-        ArrayList<Point> countDiagReflectPoints = new ArrayList<>();
-        countDiagReflectPoints.add(newA);
-        countDiagReflectPoints.add(newB);
-        countDiagReflectPoints.add(newC);
-        countDiagReflectPoints.add(newD);
-        countDiagReflectSquare.points = countDiagReflectPoints;
-        countDiagReflectSquare.a = countDiagReflectSquare.points.get(0);
-        countDiagReflectSquare.b = countDiagReflectSquare.points.get(1);
-        countDiagReflectSquare.c = countDiagReflectSquare.points.get(2);
-        countDiagReflectSquare.d = countDiagReflectSquare.points.get(3);
-        return countDiagReflectSquare;
+        return new Square(new Point[]{newA, newB, newC, newD});
     }
 
     @Override
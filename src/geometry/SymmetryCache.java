@@ -0,0 +1,342 @@
+package geometry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link Symmetries} implementation that remembers the symmetries computed by another one, both in memory and in a
+ * snapshot file, so that a restarted process can answer queries for recurring shapes without recomputing them.
+ * <p>
+ * Shapes are identified by a 64-bit fingerprint of the names and coordinates of their vertices, in order. The most
+ * recently used results are kept in a bounded in-memory map. Every newly computed result is also appended to the
+ * snapshot file as a record holding the fingerprint, the length of the payload, and the encoded symmetries. The file is
+ * only opened on the first query: it is then memory-mapped and scanned once to index the offsets of its records, and
+ * records are decoded only when they are asked for. A truncated record at the end of the file (e.g., after a crash
+ * during an append) is discarded.
+ * <p>
+ * Two different shapes may have the same fingerprint, so a cached result is only used if its first symmetry (which both
+ * {@link SquareSymmetries} and {@link RadialGraphSymmetries} make the shape itself) has the same names and coordinates
+ * as the queried shape. Otherwise the symmetries are computed again, and they replace the in-memory result but are not
+ * added to the snapshot, which keeps the first shape stored with that fingerprint. Instances are thread-safe.
+ *
+ * @param <S> the type of the shapes
+ */
+public class SymmetryCache<S extends Shape> implements Symmetries<S>, Closeable {
+
+    private static final int HEADER_BYTES = 12; // fingerprint (long), payload length (int)
+
+    private static final Codec<Square> SQUARES = new Codec<Square>() {
+        @Override
+        public void write(Square square, DataOutput out) throws IOException {
+            writePoint(square.getA(), out);
+            writePoint(square.getB(), out);
+            writePoint(square.getC(), out);
+            writePoint(square.getD(), out);
+        }
+
+        @Override
+        public Square read(DataInput in) throws IOException {
+            return new Square(readPoint(in), readPoint(in), readPoint(in), readPoint(in));
+        }
+    };
+
+    private static final Codec<RadialGraph> RADIAL_GRAPHS = new Codec<RadialGraph>() {
+        @Override
+        public void write(RadialGraph graph, DataOutput out) throws IOException {
+            writePoint(graph.getCenter(), out);
+            List<Point> neighbors = graph.getNeighbors();
+            out.writeInt(neighbors == null ? -1 : neighbors.size());
+            if (neighbors != null) {
+                for (Point p : neighbors)
+                    writePoint(p, out);
+            }
+        }
+
+        @Override
+        public RadialGraph read(DataInput in) throws IOException {
+            Point center = readPoint(in);
+            int   size   = in.readInt();
+            if (size < 0)
+                return new RadialGraph(center);
+            Point[] neighbors = new Point[size];
+            for (int i = 0; i < size; i++)
+                neighbors[i] = readPoint(in);
+            // the symmetries were valid graphs when they were computed
+            return RadialGraph.unchecked(center, neighbors);
+        }
+    };
+
+    private final Symmetries<S>      delegate;
+    private final Codec<S>           codec;
+    private final Path               snapshot;
+    private final Map<Long, List<S>> recent;
+    private final Map<Long, Long>    offsets = new HashMap<>();
+    private FileChannel              channel;
+    private MappedByteBuffer         mapped;
+
+    private SymmetryCache(Symmetries<S> delegate, Codec<S> codec, Path snapshot, int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("The cache must hold at least one shape.");
+        this.delegate = delegate;
+        this.codec    = codec;
+        this.snapshot = snapshot;
+        this.recent   = new LinkedHashMap<Long, List<S>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, List<S>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @param snapshot the snapshot file, which is created if it does not exist
+     * @param capacity the largest number of squares whose symmetries are kept in memory
+     * @return a cache in front of {@link SquareSymmetries}
+     */
+    public static SymmetryCache<Square> forSquares(Path snapshot, int capacity) {
+        return new SymmetryCache<>(new SquareSymmetries(), SQUARES, snapshot, capacity);
+    }
+
+    /**
+     * @param snapshot the snapshot file, which is created if it does not exist
+     * @param capacity the largest number of radial graphs whose symmetries are kept in memory
+     * @return a cache in front of {@link RadialGraphSymmetries}
+     */
+    public static SymmetryCache<RadialGraph> forRadialGraphs(Path snapshot, int capacity) {
+        return new SymmetryCache<>(new RadialGraphSymmetries(), RADIAL_GRAPHS, snapshot, capacity);
+    }
+
+    @Override
+    public boolean areSymmetric(S s1, S s2) {
+        for (S changes : symmetriesOf(s1)) {
+            if (s2.equals(changes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return an unmodifiable collection of all the symmetries of the given shape, in the order of the underlying
+     * {@link Symmetries} implementation.
+     */
+    @Override
+    public Collection<S> symmetriesOf(S s) {
+        byte[] encoded     = encode(s);
+        long   fingerprint = fingerprint(encoded);
+        synchronized (this) {
+            List<S> cached = recent.get(fingerprint);
+            if (cached != null && isOf(cached, encoded))
+                return cached;
+            Long offset = loadedOffsets().get(fingerprint);
+            if (offset != null) {
+                cached = readRecord(offset);
+                if (isOf(cached, encoded)) {
+                    recent.put(fingerprint, cached);
+                    return cached;
+                }
+            }
+        }
+        List<S> computed = Collections.unmodifiableList(new ArrayList<>(delegate.symmetriesOf(s)));
+        synchronized (this) {
+            // the cache may have been closed while the symmetries were computed, in which case the snapshot is reopened
+            if (!loadedOffsets().containsKey(fingerprint))
+                appendRecord(fingerprint, computed);
+            recent.put(fingerprint, computed);
+        }
+        return computed;
+    }
+
+    /**
+     * @return the number of shapes whose symmetries are stored in the snapshot file
+     */
+    public synchronized int snapshotSize() {
+        return loadedOffsets().size();
+    }
+
+    /**
+     * Closes the snapshot file. The cache can still be used afterwards, and then opens the file again.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+            mapped  = null;
+            offsets.clear();
+        }
+    }
+
+    /**
+     * @return a 64-bit fingerprint of the names and coordinates of the vertices of the shape, in order
+     */
+    long fingerprint(S s) {
+        return fingerprint(encode(s));
+    }
+
+    private static long fingerprint(byte[] encoded) {
+        // 64-bit FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : encoded) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /* the names and coordinates of the vertices of the shape, in order */
+    private byte[] encode(S s) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            codec.write(s, new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /* whether the symmetries were computed for the encoded shape, which is always the first of them, rather than for
+     * another shape with the same fingerprint */
+    private boolean isOf(List<S> symmetries, byte[] encoded) {
+        return !symmetries.isEmpty() && Arrays.equals(encode(symmetries.get(0)), encoded);
+    }
+
+    /* opens, indexes and maps the snapshot file on first use (and on the first use after close); the headers are read
+     * through the channel, so that a truncated record can be cut off before the file is mapped, since some platforms
+     * (e.g., Windows) do not allow truncating a file while it is mapped */
+    private Map<Long, Long> loadedOffsets() {
+        if (channel != null)
+            return offsets;
+        FileChannel opened = null;
+        try {
+            opened = FileChannel.open(snapshot, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                      StandardOpenOption.WRITE);
+            long size = opened.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("The symmetry snapshot is larger than 2 GB.");
+            ByteBuffer header   = ByteBuffer.allocate(HEADER_BYTES);
+            long       position = 0;
+            while (position + HEADER_BYTES <= size) {
+                header.clear();
+                while (header.hasRemaining()) {
+                    if (opened.read(header, position + header.position()) < 0)
+                        throw new IOException("Unexpected end of the symmetry snapshot " + snapshot);
+                }
+                long fingerprint = header.getLong(0);
+                int  length      = header.getInt(8);
+                if (length < 0 || position + HEADER_BYTES + (long) length > size)
+                    break;
+                offsets.put(fingerprint, position);
+                position += HEADER_BYTES + length;
+            }
+            if (position < size)
+                opened.truncate(position);
+            mapped  = opened.map(FileChannel.MapMode.READ_ONLY, 0, position);
+            channel = opened;
+            return offsets;
+        } catch (IOException e) {
+            offsets.clear();
+            try {
+                if (opened != null)
+                    opened.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new UncheckedIOException("Could not load the symmetry snapshot " + snapshot, e);
+        }
+    }
+
+    private List<S> readRecord(long offset) {
+        try {
+            byte[] payload;
+            if (offset + HEADER_BYTES <= mapped.capacity()) {
+                int length = mapped.getInt((int) offset + 8);
+                payload = new byte[length];
+                ByteBuffer record = mapped.duplicate();
+                record.position((int) offset + HEADER_BYTES);
+                record.get(payload);
+            } else {
+                // appended after the file was mapped
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                readFully(header, offset);
+                payload = new byte[header.getInt(8)];
+                readFully(ByteBuffer.wrap(payload), offset + HEADER_BYTES);
+            }
+            DataInputStream in    = new DataInputStream(new ByteArrayInputStream(payload));
+            int             count = in.readInt();
+            List<S>         syms  = new ArrayList<>(count);
+            for (int i = 0; i < count; i++)
+                syms.add(codec.read(in));
+            return Collections.unmodifiableList(syms);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the symmetry snapshot " + snapshot, e);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+                throw new IOException("Unexpected end of the symmetry snapshot " + snapshot);
+        }
+    }
+
+    private void appendRecord(long fingerprint, List<S> symmetries) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream      out   = new DataOutputStream(bytes);
+            out.writeLong(fingerprint);
+            out.writeInt(0); // payload length, filled in below
+            out.writeInt(symmetries.size());
+            for (S s : symmetries)
+                codec.write(s, out);
+            ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+            record.putInt(8, record.capacity() - HEADER_BYTES);
+            long position = channel.size();
+            while (record.hasRemaining())
+                channel.write(record, position + record.position());
+            offsets.put(fingerprint, position);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to the symmetry snapshot " + snapshot, e);
+        }
+    }
+
+    private static void writePoint(Point p, DataOutput out) throws IOException {
+        out.writeUTF(p.name);
+        out.writeDouble(p.x);
+        out.writeDouble(p.y);
+    }
+
+    private static Point readPoint(DataInput in) throws IOException {
+        String name = in.readUTF();
+        double x    = in.readDouble();
+        double y    = in.readDouble();
+        return new Point(name, x, y);
+    }
+
+    /* how the shapes are written to, and read from, the snapshot file */
+    interface Codec<S extends Shape> {
+        void write(S s, DataOutput out) throws IOException;
+
+        S read(DataInput in) throws IOException;
+    }
+}
@@ -0,0 +1,166 @@
+package geometry;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A fixed sequence of transforms that can be applied to many shapes. The transforms are not recorded one by one, but
+ * fused as they are added: rotations about the center of a shape and translations commute, and the reflections of a
+ * square only exchange coordinates among its vertices, so any sequence is equivalent to a single reflection, followed
+ * by a single rotation and a single translation. Applying a pipeline therefore takes the same time however many
+ * transforms it has, and creates a single new shape.
+ * <p>
+ * Pipelines are immutable, so every method that adds a transform returns a new pipeline, and a pipeline can be shared
+ * freely between threads. Squares and radial graphs are transformed in place on per-thread {@link MutableSquare} and
+ * {@link MutableRadialGraph} buffers, except that graphs with at least <code>RadialGraph.PARALLEL_THRESHOLD</code>
+ * spokes get a buffer of their own, so that the per-thread buffers never hold on to the arrays of very large graphs.
+ * Reflections are only defined for squares.
+ *
+ * @param <S> the type of the transformed shapes
+ */
+public class TransformPipeline<S extends Shape> {
+
+    private static final ThreadLocal<MutableSquare>      SQUARES = ThreadLocal.withInitial(MutableSquare::new);
+    private static final ThreadLocal<MutableRadialGraph> GRAPHS  = ThreadLocal.withInitial(MutableRadialGraph::new);
+
+    private static final int[] IDENTITY = {0, 1, 2, 3};
+
+    private final int    degrees;
+    private final double x;
+    private final double y;
+    // the new coordinates of vertex i are the old coordinates of vertex permutation[i]
+    private final int[]  permutation;
+
+    /**
+     * Creates an empty pipeline, which leaves every shape as it is.
+     */
+    public TransformPipeline() {
+        this(0, 0, 0, IDENTITY);
+    }
+
+    private TransformPipeline(int degrees, double x, double y, int[] permutation) {
+        this.degrees     = degrees;
+        this.x           = x;
+        this.y           = y;
+        this.permutation = permutation;
+    }
+
+    /**
+     * @param degrees the degrees of counterclockwise rotation about the center of each shape
+     * @return this pipeline followed by the rotation
+     */
+    public TransformPipeline<S> rotateBy(int degrees) {
+        return new TransformPipeline<>((this.degrees + degrees % 360) % 360, x, y, permutation);
+    }
+
+    /**
+     * @param x the amount by which all points are moved along the x axis
+     * @param y the amount by which all points are moved along the y axis
+     * @return this pipeline followed by the translation
+     */
+    public TransformPipeline<S> translateBy(double x, double y) {
+        return new TransformPipeline<>(degrees, this.x + x, this.y + y, permutation);
+    }
+
+    /**
+     * @return this pipeline followed by {@link Square#verticalReflection()}
+     */
+    public TransformPipeline<S> verticalReflection() {
+        return swap(0, 3).swap(1, 2);
+    }
+
+    /**
+     * @return this pipeline followed by {@link Square#horizontalReflection()}
+     */
+    public TransformPipeline<S> horizontalReflection() {
+        return swap(0, 1).swap(2, 3);
+    }
+
+    /**
+     * @return this pipeline followed by {@link Square#diagonalReflection()}
+     */
+    public TransformPipeline<S> diagonalReflection() {
+        return swap(0, 2);
+    }
+
+    /**
+     * @return this pipeline followed by {@link Square#counterDiagonalReflection()}
+     */
+    public TransformPipeline<S> counterDiagonalReflection() {
+        return swap(1, 3);
+    }
+
+    private TransformPipeline<S> swap(int i, int j) {
+        int[] swapped = permutation.clone();
+        swapped[i] = permutation[j];
+        swapped[j] = permutation[i];
+        return new TransformPipeline<>(degrees, x, y, swapped);
+    }
+
+    private boolean reflects() {
+        for (int i = 0; i < 4; i++) {
+            if (permutation[i] != i)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Applies the fused transforms to one shape.
+     *
+     * @param shape the shape to be transformed
+     * @return the transformed shape
+     * @throws UnsupportedOperationException if this pipeline has a reflection and the shape is not a square
+     */
+    @SuppressWarnings("unchecked")
+    public S apply(S shape) {
+        if (shape instanceof Square) {
+            MutableSquare square = SQUARES.get().set((Square) shape);
+            square.permute(permutation);
+            if (degrees != 0)
+                square.rotateBy(degrees);
+            if (x != 0 || y != 0)
+                square.translateBy(x, y);
+            return (S) square.freeze();
+        }
+        if (reflects())
+            throw new UnsupportedOperationException("Reflections are only defined for squares.");
+        if (shape instanceof RadialGraph) {
+            RadialGraph        source = (RadialGraph) shape;
+            List<Point>        spokes = source.getNeighbors();
+            MutableRadialGraph graph  = spokes != null && spokes.size() >= RadialGraph.PARALLEL_THRESHOLD
+                                        ? new MutableRadialGraph(source) : GRAPHS.get().set(source);
+            if (degrees != 0)
+                graph.rotateBy(degrees);
+            if (x != 0 || y != 0)
+                graph.translateBy(x, y);
+            return (S) graph.freeze();
+        }
+        return (S) shape.rotateBy(degrees).translateBy(x, y);
+    }
+
+    /**
+     * Applies the fused transforms to a stream of shapes, in parallel.
+     *
+     * @param shapes the shapes to be transformed
+     * @return a parallel stream of the transformed shapes
+     */
+    public Stream<S> apply(Stream<S> shapes) {
+        return shapes.parallel().map(this::apply);
+    }
+
+    /**
+     * Applies the fused transforms to every shape of the spliterator in parallel, and hands each transformed shape to
+     * the sink as soon as it is ready. The sink is called from several threads and in no particular order, so it must
+     * be thread-safe.
+     *
+     * @param shapes the shapes to be transformed
+     * @param sink   the consumer of the transformed shapes
+     */
+    public void applyTo(Spliterator<S> shapes, Consumer<? super S> sink) {
+        StreamSupport.stream(shapes, true).map(this::apply).forEach(sink);
+    }
+}